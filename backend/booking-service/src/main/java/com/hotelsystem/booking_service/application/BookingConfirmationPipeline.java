@@ -0,0 +1,380 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.client.RoomServiceUnavailableException;
+import com.hotelsystem.booking_service.event.ReservationCancelledEvent;
+import com.hotelsystem.booking_service.event.ReservationConfirmedEvent;
+import com.hotelsystem.booking_service.event.ReservationCreatedEvent;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.model.Invoice;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Confirms new bookings in the background. Committed bookings go onto a bounded queue; workers take
+// them in micro-batches, re-check the room is still free, check the stored price against a fresh
+// quote, pre-create the invoice and confirm the whole batch with one update, raising
+// ReservationConfirmedEvent per booking. Bookings that lost their room are cancelled. A stay that now
+// quotes differently is still confirmed at the price the guest agreed to, and counted under
+// price-changed; an unreachable room-service leaves the booking pending for a later attempt.
+// The queue only holds IDs: PENDING in the database is the durable record, so a full queue or a
+// restart loses nothing, the sweep finds the bookings again.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.confirmation.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingConfirmationPipeline {
+
+    private static final int SWEEP_CHUNK = 500;
+
+    private final BookingRepository bookingRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final RoomQuoteCache roomQuoteCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BigDecimal taxRate;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int workerCount;
+
+    private final BlockingQueue<Pending> queue;
+    // IDs queued or in a batch, so the sweep never queues a booking twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+
+    private final Counter rejected;
+    private final Timer queueWait;
+    private final Timer batchLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter confirmed;
+    private final Counter cancelled;
+    private final Counter priceChanged;
+    private final Counter deferred;
+    private final Counter failed;
+
+    public BookingConfirmationPipeline(BookingRepository bookingRepository, InvoiceRepository invoiceRepository,
+                                       RoomQuoteCache roomQuoteCache, TransactionTemplate transactionTemplate,
+                                       ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                                       @Value("${booking.billing.tax-rate:0.10}") BigDecimal taxRate,
+                                       @Value("${booking.confirmation.queue-capacity:10000}") int queueCapacity,
+                                       @Value("${booking.confirmation.workers:2}") int workers,
+                                       @Value("${booking.confirmation.batch-size:100}") int batchSize,
+                                       @Value("${booking.confirmation.linger-ms:20}") long lingerMillis) {
+        this.bookingRepository = bookingRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.roomQuoteCache = roomQuoteCache;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taxRate = taxRate;
+        this.batchSize = batchSize;
+        this.lingerNanos = lingerMillis * 1_000_000;
+        this.workerCount = workers;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "booking-confirm-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        meterRegistry.gauge("booking.confirmation.queue.depth", queue, BlockingQueue::size);
+        this.rejected = meterRegistry.counter("booking.confirmation.rejected");
+        this.queueWait = meterRegistry.timer("booking.confirmation.queue.wait");
+        this.batchLatency = meterRegistry.timer("booking.confirmation.batch.latency");
+        this.batchSizes = meterRegistry.summary("booking.confirmation.batch.size");
+        this.confirmed = meterRegistry.counter("booking.confirmation.bookings", "result", "confirmed");
+        this.cancelled = meterRegistry.counter("booking.confirmation.bookings", "result", "cancelled");
+        this.priceChanged = meterRegistry.counter("booking.confirmation.bookings", "result", "price-changed");
+        this.deferred = meterRegistry.counter("booking.confirmation.bookings", "result", "deferred");
+        this.failed = meterRegistry.counter("booking.confirmation.bookings", "result", "failed");
+    }
+
+    // After commit, so a worker never looks for a booking that is not there yet. Never waits: the
+    // request still holds its room locks here (one event per booking of a group), so a full queue
+    // leaves the booking for the next sweep instead.
+    @TransactionalEventListener
+    public void on(ReservationCreatedEvent event) {
+        if (!enqueue(event.getBookingId())) {
+            rejected.increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    // Queues every pending booking not already queued: on startup this recovers the work a restart
+    // dropped, later it retries deferred bookings and picks up the ones a full queue turned away
+    @Scheduled(fixedDelayString = "${booking.confirmation.sweep-interval-ms:60000}")
+    public void sweep() {
+        long after = 0;
+        List<Long> ids;
+        while (!(ids = bookingRepository.findIdsByStatusAfter(BookingStatus.PENDING, after,
+                PageRequest.of(0, SWEEP_CHUNK))).isEmpty()) {
+            for (Long id : ids) {
+                // The next sweep resumes from the start
+                if (!enqueue(id)) {
+                    return;
+                }
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    // True once no booking is queued or in a batch
+    boolean idle() {
+        return queued.isEmpty();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private boolean enqueue(Long bookingId) {
+        if (!queued.add(bookingId)) {
+            return true;
+        }
+        boolean accepted = queue.offer(new Pending(bookingId, System.nanoTime()));
+        if (!accepted) {
+            queued.remove(bookingId);
+        }
+        return accepted;
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Pending> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<Long> ids = new ArrayList<>(batch.size());
+            long now = System.nanoTime();
+            for (Pending pending : batch) {
+                ids.add(pending.bookingId);
+                queueWait.record(now - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+            }
+            try {
+                batchSizes.record(ids.size());
+                batchLatency.record(() -> process(ids));
+            } catch (RuntimeException e) {
+                // Still pending in the database; the next sweep queues them again
+                failed.increment(ids.size());
+                log.warn("Confirming {} bookings failed: {}", ids.size(), e.getMessage());
+            } finally {
+                ids.forEach(queued::remove);
+            }
+        }
+    }
+
+    // Blocks for the first booking, then waits up to linger-ms for the batch to fill
+    private List<Pending> nextBatch() throws InterruptedException {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        batch.add(queue.take());
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+        return batch;
+    }
+
+    private void process(List<Long> ids) {
+        // Quotes first and outside the transaction: a miss goes to room-service
+        Map<Long, BigDecimal> quoted = quote(bookingRepository.findPendingStays(ids));
+        transactionTemplate.executeWithoutResult(status -> confirm(ids, quoted));
+    }
+
+    // bookingId -> current price of its stay; bookings room-service could not price are missing
+    private Map<Long, BigDecimal> quote(List<Object[]> stays) {
+        Map<Stay, List<Object[]>> byDates = new HashMap<>();
+        for (Object[] stay : stays) {
+            LocalDate checkIn = (LocalDate) stay[2];
+            byDates.computeIfAbsent(new Stay(checkIn, nightsEnd(checkIn, (LocalDate) stay[3])),
+                    dates -> new ArrayList<>()).add(stay);
+        }
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        byDates.forEach((dates, sameDates) -> {
+            List<Long> roomIds = sameDates.stream().map(stay -> (Long) stay[1]).toList();
+            Map<Long, RoomQuoteDTO> quotes;
+            try {
+                quotes = roomQuoteCache.quotes(roomIds, dates.checkIn, dates.nightsEnd);
+            } catch (RoomServiceUnavailableException e) {
+                return;
+            }
+            for (Object[] stay : sameDates) {
+                RoomQuoteDTO quote = quotes.get((Long) stay[1]);
+                if (quote != null && quote.getTotalPrice() != null) {
+                    prices.put((Long) stay[0], quote.getTotalPrice());
+                }
+            }
+        });
+        return prices;
+    }
+
+    private void confirm(List<Long> ids, Map<Long, BigDecimal> quoted) {
+        // Locked, so a manual update of the same booking waits for this batch or the batch for it
+        List<Booking> bookings = bookingRepository.findPendingForUpdate(ids);
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Set<Long> roomIds = new HashSet<>();
+        LocalDate from = LocalDate.MAX;
+        LocalDate to = LocalDate.MIN;
+        for (Booking booking : bookings) {
+            roomIds.add(booking.getRoomId());
+            from = min(from, booking.getCheckInDate());
+            to = max(to, nightsEnd(booking.getCheckInDate(), booking.getCheckOutDate()));
+        }
+        Map<Long, List<Object[]>> staysByRoom = new HashMap<>();
+        for (Object[] stay : bookingRepository.findLiveStaysWithIds(roomIds, from, to)) {
+            staysByRoom.computeIfAbsent((Long) stay[1], roomId -> new ArrayList<>()).add(stay);
+        }
+
+        List<Booking> confirming = new ArrayList<>();
+        List<Long> losing = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (!available(booking, staysByRoom.getOrDefault(booking.getRoomId(), List.of()), losing)) {
+                losing.add(booking.getId());
+                continue;
+            }
+            BigDecimal price = quoted.get(booking.getId());
+            if (price == null) {
+                deferred.increment();
+                continue;
+            }
+            // A rate change never undoes a reservation: the guest keeps the price they booked at.
+            // Only a booking stored without a price takes the quote.
+            if (booking.getTotalPrice() == null) {
+                booking.setTotalPrice(price);
+            } else if (price.compareTo(booking.getTotalPrice()) != 0) {
+                priceChanged.increment();
+                log.info("Booking {} was priced at {} but the stay now quotes {}; confirmed at the booked price",
+                        booking.getId(), booking.getTotalPrice(), price);
+            }
+            confirming.add(booking);
+        }
+
+        if (!losing.isEmpty()) {
+            bookingRepository.updateStatus(losing, BookingStatus.PENDING, BookingStatus.CANCELLED);
+            LocalDateTime now = LocalDateTime.now();
+            for (Long id : losing) {
+                eventPublisher.publishEvent(new ReservationCancelledEvent(id,
+                        "Room no longer available for these dates", now));
+            }
+            cancelled.increment(losing.size());
+        }
+        if (confirming.isEmpty()) {
+            return;
+        }
+        List<Long> confirmingIds = confirming.stream().map(Booking::getId).toList();
+        preCreateInvoices(confirming, new HashSet<>(invoiceRepository.findInvoicedBookingIds(confirmingIds)));
+        bookingRepository.updateStatus(confirmingIds, BookingStatus.PENDING, BookingStatus.CONFIRMED);
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : confirmingIds) {
+            eventPublisher.publishEvent(new ReservationConfirmedEvent(id, now));
+        }
+        confirmed.increment(confirmingIds.size());
+    }
+
+    // The booking keeps its room unless another live stay on it overlaps and came first: a confirmed
+    // one always did, a pending one if it is older and was not just cancelled itself
+    private static boolean available(Booking booking, List<Object[]> roomStays, List<Long> losing) {
+        LocalDate checkIn = booking.getCheckInDate();
+        LocalDate nightsEnd = nightsEnd(checkIn, booking.getCheckOutDate());
+        for (Object[] stay : roomStays) {
+            Long id = (Long) stay[0];
+            if (id.equals(booking.getId()) || losing.contains(id)) {
+                continue;
+            }
+            LocalDate otherIn = (LocalDate) stay[2];
+            if (!otherIn.isBefore(nightsEnd) || !nightsEnd(otherIn, (LocalDate) stay[3]).isAfter(checkIn)) {
+                continue;
+            }
+            if (stay[4] != BookingStatus.PENDING || id < booking.getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same invoice a billing run would issue at checkout; the guest desk can still add services to it
+    private void preCreateInvoices(List<Booking> bookings, Set<Long> invoiced) {
+        LocalDateTime issueDate = LocalDateTime.now();
+        List<Invoice> invoices = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (invoiced.contains(booking.getId())) {
+                continue;
+            }
+            Invoice invoice = new Invoice();
+            invoice.setBooking(booking);
+            invoice.setIssueDate(issueDate);
+            invoice.setServices(new ArrayList<>());
+            invoice.setTaxRate(taxRate);
+            invoice.calculateTotal(booking.getTotalPrice());
+            invoices.add(invoice);
+        }
+        invoiceRepository.saveAll(invoices);
+    }
+
+    // A stay checking out on or before its check-in day still holds one night
+    private static LocalDate nightsEnd(LocalDate checkIn, LocalDate checkOut) {
+        return checkOut.isAfter(checkIn) ? checkOut : checkIn.plusDays(1);
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record Pending(Long bookingId, long enqueuedAt) {
+    }
+
+    private record Stay(LocalDate checkIn, LocalDate nightsEnd) {
+    }
+}
@@ -1,23 +1,28 @@
 package com.hotelsystem.booking_service.application;
 
+import com.hotelsystem.booking_service.event.ReservationCreatedEvent;
 import com.hotelsystem.booking_service.model.Booking;
 import com.hotelsystem.booking_service.model.BookingStatus;
 import com.hotelsystem.booking_service.repository.BookingRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.time.temporal.ChronoUnit;
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+
+import java.time.LocalDate;
 
 @Service
 @RequiredArgsConstructor
 public class CreateBookingCommandHandler {
 
     private final BookingRepository bookingRepository;
-    private final org.springframework.web.client.RestTemplate restTemplate;
+    private final RoomQuoteCache roomQuoteCache;
+    private final RoomBookingLocks roomBookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
     public Long handle(CreateBookingCommand command) {
         Booking booking = new Booking();
         booking.setGuestId(command.getGuestId());
@@ -28,21 +33,28 @@ public class CreateBookingCommandHandler {
         // Default Status
         booking.setStatus(BookingStatus.PENDING);
         
-        // Fetch Room Price from Room Service
-        String roomServiceUrl = "http://localhost:10004/api/rooms/" + command.getRoomId();
-        com.hotelsystem.booking_service.application.dto.RoomDTO room = restTemplate.getForObject(roomServiceUrl, com.hotelsystem.booking_service.application.dto.RoomDTO.class);
-        
-        if (room == null || room.getPricePerNight() == null) {
-            throw new RuntimeException("Failed to fetch room details for price calculation.");
+        // Price the stay with room-service's rate calendar (seasonal and weekday rates)
+        LocalDate checkOut = command.getCheckOutDate();
+        if (!checkOut.isAfter(command.getCheckInDate())) {
+            checkOut = command.getCheckInDate().plusDays(1); // Minimum 1 night
         }
+        RoomQuoteDTO quote = roomQuoteCache.quote(command.getRoomId(), command.getCheckInDate(), checkOut);
+        booking.setTotalPrice(quote.getTotalPrice());
+        booking.setRoomType(quote.getRoomType());
 
-        // Calculate Price: Room Price * Days
-        long days = ChronoUnit.DAYS.between(command.getCheckInDate(), command.getCheckOutDate());
-        if (days < 1) days = 1; // Minimum 1 night
-        
-        booking.setTotalPrice(room.getPricePerNight().multiply(BigDecimal.valueOf(days)));
-        
-        Booking savedBooking = bookingRepository.save(booking);
-        return savedBooking.getId();
+        // Check and insert under the room's lock, released only after commit, so two requests for
+        // the same nights cannot both pass the check; the remote quote stays outside the lock
+        LocalDate nightsEnd = checkOut;
+        return roomBookingLocks.withRoomsLocked(() -> transactionTemplate.execute(status -> {
+            if (bookingRepository.existsOverlapping(booking.getRoomId(), booking.getCheckInDate(), nightsEnd, null)) {
+                throw new RuntimeException("Room " + booking.getRoomId() + " is already booked between "
+                        + booking.getCheckInDate() + " and " + nightsEnd + ".");
+            }
+            Booking savedBooking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(new ReservationCreatedEvent(savedBooking.getId(), savedBooking.getGuestId(),
+                    savedBooking.getRoomId(), savedBooking.getCheckInDate(), savedBooking.getCheckOutDate(),
+                    savedBooking.getTotalPrice()));
+            return savedBooking.getId();
+        }), booking.getRoomId());
     }
 }
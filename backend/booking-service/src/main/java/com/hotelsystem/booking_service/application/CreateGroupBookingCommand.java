@@ -0,0 +1,28 @@
+package com.hotelsystem.booking_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// A block of rooms for one guest (conference, wedding). With allOrNothing (the default) a single
+// failing line books nothing; otherwise every line that can be booked is.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateGroupBookingCommand {
+    private String guestId;
+    private List<Line> lines;
+    private Boolean allOrNothing;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long roomId;
+        private LocalDate checkInDate;
+        private LocalDate checkOutDate;
+    }
+}
@@ -0,0 +1,209 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.GroupBookingLineResult;
+import com.hotelsystem.booking_service.application.dto.GroupBookingResult;
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.event.ReservationCreatedEvent;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Books a whole block in one request: one batched quote call per distinct stay, one availability
+// query for every room in the block, and one transaction whose inserts go out in JDBC batches.
+@Service
+@RequiredArgsConstructor
+public class CreateGroupBookingCommandHandler {
+
+    private static final int MAX_LINES = 500;
+    private static final String GROUP_REJECTED = "Not booked: another line of the group failed.";
+
+    private final BookingRepository bookingRepository;
+    private final RoomQuoteCache roomQuoteCache;
+    private final RoomBookingLocks roomBookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GroupBookingResult handle(CreateGroupBookingCommand command) {
+        List<CreateGroupBookingCommand.Line> lines = command.getLines();
+        if (command.getGuestId() == null || command.getGuestId().isBlank()) {
+            throw new RuntimeException("Guest ID is required.");
+        }
+        if (lines == null || lines.isEmpty() || lines.size() > MAX_LINES) {
+            throw new RuntimeException("A group booking needs between 1 and " + MAX_LINES + " lines.");
+        }
+        boolean allOrNothing = command.getAllOrNothing() == null || command.getAllOrNothing();
+
+        List<GroupBookingLineResult> results = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            CreateGroupBookingCommand.Line line = lines.get(i);
+            results.add(new GroupBookingLineResult(i + 1, line.getRoomId(), null, null, null, validate(line)));
+        }
+        price(lines, results);
+        rejectOverlapsWithinGroup(lines, results);
+
+        // Availability is checked even when an all-or-nothing block already failed, so every problem is reported
+        Long[] roomIds = lines.stream().map(CreateGroupBookingCommand.Line::getRoomId)
+                .filter(roomId -> roomId != null).distinct().toArray(Long[]::new);
+        roomBookingLocks.withRoomsLocked(() -> transactionTemplate.execute(status -> {
+            book(command.getGuestId(), lines, results, allOrNothing);
+            return null;
+        }), roomIds);
+        if (allOrNothing && anyFailed(results)) {
+            for (GroupBookingLineResult result : results) {
+                if (result.getError() == null) {
+                    result.setError(GROUP_REJECTED);
+                }
+            }
+        }
+        int created = (int) results.stream().filter(result -> result.getBookingId() != null).count();
+        return new GroupBookingResult(lines.size(), created, results);
+    }
+
+    // Runs under the rooms' locks: one query for every live stay that could collide, then one batched insert
+    private void book(String guestId, List<CreateGroupBookingCommand.Line> lines,
+                      List<GroupBookingLineResult> results, boolean allOrNothing) {
+        Set<Long> roomIds = new LinkedHashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < lines.size(); i++) {
+            if (results.get(i).getError() == null) {
+                CreateGroupBookingCommand.Line line = lines.get(i);
+                roomIds.add(line.getRoomId());
+                from = from == null || line.getCheckInDate().isBefore(from) ? line.getCheckInDate() : from;
+                to = to == null || line.getCheckOutDate().isAfter(to) ? line.getCheckOutDate() : to;
+            }
+        }
+        if (roomIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<LocalDate[]>> staysByRoom = new HashMap<>();
+        for (Object[] stay : bookingRepository.findLiveStays(roomIds, from, to)) {
+            staysByRoom.computeIfAbsent((Long) stay[0], id -> new ArrayList<>())
+                    .add(new LocalDate[]{(LocalDate) stay[1], (LocalDate) stay[2]});
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            CreateGroupBookingCommand.Line line = lines.get(i);
+            if (results.get(i).getError() != null) {
+                continue;
+            }
+            for (LocalDate[] stay : staysByRoom.getOrDefault(line.getRoomId(), List.of())) {
+                if (stay[0].isBefore(line.getCheckOutDate()) && stay[1].isAfter(line.getCheckInDate())) {
+                    results.get(i).setError("Room " + line.getRoomId() + " is already booked between "
+                            + line.getCheckInDate() + " and " + line.getCheckOutDate() + ".");
+                    break;
+                }
+            }
+        }
+        if (allOrNothing && anyFailed(results)) {
+            return;
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        List<GroupBookingLineResult> booked = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            GroupBookingLineResult result = results.get(i);
+            if (result.getError() == null) {
+                CreateGroupBookingCommand.Line line = lines.get(i);
+                Booking booking = new Booking();
+                booking.setGuestId(guestId);
+                booking.setRoomId(line.getRoomId());
+                booking.setCheckInDate(line.getCheckInDate());
+                booking.setCheckOutDate(line.getCheckOutDate());
+                booking.setStatus(BookingStatus.PENDING);
+                booking.setTotalPrice(result.getTotalPrice());
+                booking.setRoomType(result.getRoomType());
+                bookings.add(booking);
+                booked.add(result);
+            }
+        }
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            booked.get(i).setBookingId(booking.getId());
+            eventPublisher.publishEvent(new ReservationCreatedEvent(booking.getId(), booking.getGuestId(),
+                    booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getTotalPrice()));
+        }
+    }
+
+    // One batched room-service call per distinct stay; usually the whole block shares one
+    private void price(List<CreateGroupBookingCommand.Line> lines, List<GroupBookingLineResult> results) {
+        Map<List<LocalDate>, List<Integer>> byStay = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (results.get(i).getError() == null) {
+                CreateGroupBookingCommand.Line line = lines.get(i);
+                List<LocalDate> stay = List.of(line.getCheckInDate(), line.getCheckOutDate());
+                byStay.computeIfAbsent(stay, key -> new ArrayList<>()).add(i);
+            }
+        }
+        for (Map.Entry<List<LocalDate>, List<Integer>> stay : byStay.entrySet()) {
+            List<Long> roomIds = stay.getValue().stream().map(i -> lines.get(i).getRoomId()).toList();
+            Map<Long, RoomQuoteDTO> quotes = roomQuoteCache.quotes(roomIds, stay.getKey().get(0), stay.getKey().get(1));
+            for (int i : stay.getValue()) {
+                RoomQuoteDTO quote = quotes.get(lines.get(i).getRoomId());
+                if (quote == null) {
+                    results.get(i).setError("Room not found with ID: " + lines.get(i).getRoomId());
+                } else {
+                    results.get(i).setTotalPrice(quote.getTotalPrice());
+                    results.get(i).setRoomType(quote.getRoomType());
+                }
+            }
+        }
+    }
+
+    // Two lines of the same request holding the same room night: the later line loses
+    private static void rejectOverlapsWithinGroup(List<CreateGroupBookingCommand.Line> lines,
+                                                  List<GroupBookingLineResult> results) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (results.get(i).getError() == null) {
+                order.add(i);
+            }
+        }
+        order.sort(Comparator.<Integer, Long>comparing(i -> lines.get(i).getRoomId())
+                .thenComparing(i -> lines.get(i).getCheckInDate())
+                .thenComparing(i -> i));
+        int previous = -1;
+        for (int i : order) {
+            CreateGroupBookingCommand.Line line = lines.get(i);
+            if (previous >= 0 && lines.get(previous).getRoomId().equals(line.getRoomId())
+                    && line.getCheckInDate().isBefore(lines.get(previous).getCheckOutDate())) {
+                results.get(Math.max(i, previous)).setError("Overlaps line " + (Math.min(i, previous) + 1)
+                        + " of this group for room " + line.getRoomId() + ".");
+                if (i < previous) {
+                    previous = i;
+                }
+                continue;
+            }
+            previous = i;
+        }
+    }
+
+    private static String validate(CreateGroupBookingCommand.Line line) {
+        if (line.getRoomId() == null || line.getCheckInDate() == null || line.getCheckOutDate() == null) {
+            return "roomId, checkInDate and checkOutDate are required.";
+        }
+        if (!line.getCheckOutDate().isAfter(line.getCheckInDate())) {
+            return "Check-out date must be after check-in date.";
+        }
+        return null;
+    }
+
+    private static boolean anyFailed(List<GroupBookingLineResult> results) {
+        return results.stream().anyMatch(result -> result.getError() != null);
+    }
+}
@@ -4,9 +4,23 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CreateInvoiceCommand {
     private Long bookingId;
+    // Extras billed on top of the room (minibar, spa, ...); optional
+    private List<ServiceLine> services;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ServiceLine {
+        private String name;
+        private BigDecimal price;
+        private String description;
+    }
 }
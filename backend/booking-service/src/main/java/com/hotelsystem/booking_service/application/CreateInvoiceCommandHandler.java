@@ -1,37 +1,72 @@
 package com.hotelsystem.booking_service.application;
 
+import com.hotelsystem.booking_service.model.AdditionalService;
 import com.hotelsystem.booking_service.model.Booking;
 import com.hotelsystem.booking_service.model.Invoice;
 import com.hotelsystem.booking_service.repository.BookingRepository;
 import com.hotelsystem.booking_service.repository.InvoiceRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class CreateInvoiceCommandHandler {
 
     private final InvoiceRepository invoiceRepository;
     private final BookingRepository bookingRepository;
+    private final BigDecimal taxRate;
 
+    public CreateInvoiceCommandHandler(InvoiceRepository invoiceRepository, BookingRepository bookingRepository,
+                                       @Value("${booking.billing.tax-rate:0.10}") BigDecimal taxRate) {
+        this.invoiceRepository = invoiceRepository;
+        this.bookingRepository = bookingRepository;
+        this.taxRate = taxRate;
+    }
+
+    // A booking is invoiced once; asking again adds the request's service lines to the existing
+    // invoice (confirmation pre-creates it without any) and recalculates it. Retries of one request
+    // are kept from adding lines twice by the Idempotency-Key.
     @Transactional
     public Long handle(CreateInvoiceCommand command) {
         Booking booking = bookingRepository.findById(command.getBookingId())
                 .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + command.getBookingId()));
+        List<AdditionalService> services = services(command);
+        List<Invoice> existing = invoiceRepository.findByBookingId(booking.getId());
+        if (!existing.isEmpty()) {
+            Invoice invoice = existing.get(0);
+            if (!services.isEmpty()) {
+                invoice.getServices().addAll(services);
+                invoice.calculateTotal();
+            }
+            return invoice.getId();
+        }
 
         Invoice invoice = new Invoice();
         invoice.setBooking(booking);
         invoice.setIssueDate(LocalDateTime.now());
-        
-        // Simple amount calculation logic: Total Price from Booking
-        // In a real system, we might recalculate or add extra services
-        invoice.setAmount(booking.getTotalPrice()); 
+        invoice.setServices(services);
+        invoice.setTaxRate(taxRate);
+        invoice.calculateTotal();
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
         return savedInvoice.getId();
     }
+
+    private static List<AdditionalService> services(CreateInvoiceCommand command) {
+        List<AdditionalService> services = new ArrayList<>();
+        if (command.getServices() != null) {
+            for (CreateInvoiceCommand.ServiceLine line : command.getServices()) {
+                if (line.getPrice() == null || line.getPrice().signum() < 0) {
+                    throw new RuntimeException("Service '" + line.getName() + "' needs a price of zero or more.");
+                }
+                services.add(new AdditionalService(null, line.getName(), line.getPrice(), line.getDescription()));
+            }
+        }
+        return services;
+    }
 }
@@ -1,21 +1,32 @@
 package com.hotelsystem.booking_service.application;
 
+import com.hotelsystem.booking_service.event.ReservationCancelledEvent;
+import com.hotelsystem.booking_service.model.Booking;
 import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class DeleteBookingCommandHandler {
 
     private final BookingRepository bookingRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void handle(Long bookingId) {
-        if (!bookingRepository.existsById(bookingId)) {
-            throw new RuntimeException("Booking not found with id: " + bookingId);
-        }
-        bookingRepository.deleteById(bookingId);
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
+        // Invoices hold a foreign key to the booking; they and their service lines go first
+        booking.setInvoice(null);
+        invoiceRepository.deleteAll(invoiceRepository.findByBookingId(bookingId));
+        bookingRepository.delete(booking);
+        eventPublisher.publishEvent(new ReservationCancelledEvent(bookingId, "Booking deleted", LocalDateTime.now()));
     }
 }
@@ -0,0 +1,17 @@
+package com.hotelsystem.booking_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Bookings created on days [from, to); either bound may be left open
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportBookingsQuery {
+    private LocalDate from;
+    private LocalDate to;
+    private ExportFormat format;
+}
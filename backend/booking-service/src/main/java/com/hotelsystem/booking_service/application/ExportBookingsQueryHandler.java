@@ -0,0 +1,39 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.application.dto.BookingExportRow;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Streams bookings straight from a database cursor to the response; heap use does not depend on row count
+@Service
+@RequiredArgsConstructor
+public class ExportBookingsQueryHandler {
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public int handle(ExportBookingsQuery query, OutputStream out) throws IOException {
+        try (Stream<BookingExportRow> rows = bookingRepository.streamForExport(
+                query.getFrom() == null ? null : query.getFrom().atStartOfDay(),
+                query.getTo() == null ? null : query.getTo().atStartOfDay());
+             ExportWriter writer = new ExportWriter(out, query.getFormat(), objectMapper, "id", "guestId", "roomId",
+                     "checkInDate", "checkOutDate", "status", "totalPrice", "createdAt")) {
+            Iterator<BookingExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BookingExportRow row = iterator.next();
+                writer.write(row.getId(), row.getGuestId(), row.getRoomId(), row.getCheckInDate(),
+                        row.getCheckOutDate(), row.getStatus(), row.getTotalPrice(), row.getCreatedAt());
+            }
+            return writer.rows();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.application.dto.InvoiceExportRow;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExportInvoicesQueryHandler {
+
+    private final InvoiceRepository invoiceRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public int handle(ExportInvoicesQuery query, OutputStream out) throws IOException {
+        try (Stream<InvoiceExportRow> rows = invoiceRepository.streamForExport(
+                query.getFrom() == null ? null : query.getFrom().atStartOfDay(),
+                query.getTo() == null ? null : query.getTo().atStartOfDay());
+             ExportWriter writer = new ExportWriter(out, query.getFormat(), objectMapper, "id", "bookingId",
+                     "guestId", "issueDate", "amount")) {
+            Iterator<InvoiceExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                InvoiceExportRow row = iterator.next();
+                writer.write(row.getId(), row.getBookingId(), row.getGuestId(), row.getIssueDate(), row.getAmount());
+            }
+            return writer.rows();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Writes export rows one at a time, as NDJSON objects or CSV lines under a header, and flushes
+// every few hundred rows so the client sees progress and nothing accumulates in the buffer
+final class ExportWriter implements Closeable {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ExportFormat format;
+    private final String[] columns;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private int rows;
+
+    ExportWriter(OutputStream out, ExportFormat format, ObjectMapper objectMapper, String... columns)
+            throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            this.json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the newline written after each one, not the default space
+            json.setRootValueSeparator(null);
+        } else {
+            this.json = null;
+            writeCsvLine((Object[]) columns);
+        }
+    }
+
+    void write(Object... values) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            json.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                json.writeFieldName(columns[i]);
+                json.writeObject(values[i]);
+            }
+            json.writeEndObject();
+            json.flush();
+            writer.write('\n');
+        } else {
+            writeCsvLine(values);
+        }
+        if (++rows % FLUSH_EVERY == 0) {
+            writer.flush();
+        }
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escape(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,10 +1,19 @@
 package com.hotelsystem.booking_service.application;
 
+import com.hotelsystem.booking_service.model.BookingStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @NoArgsConstructor
 public class GetBookingsQuery {
     private String guestId;
+    // Optional filters for a guest's bookings: stays overlapping [from, to) and a status
+    private BookingStatus status;
+    private LocalDate from;
+    private LocalDate to;
+    private Integer page;
+    private Integer size;
 }
@@ -1,8 +1,11 @@
 package com.hotelsystem.booking_service.application;
 
-import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.application.dto.BookingDTO;
 import com.hotelsystem.booking_service.repository.BookingRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,16 +15,29 @@ import java.util.List;
 @RequiredArgsConstructor
 public class GetBookingsQueryHandler {
 
+    private static final int DEFAULT_SIZE = 100;
+    private static final int MAX_SIZE = 500;
+
     private final BookingRepository bookingRepository;
 
     @Transactional(readOnly = true)
-    public List<Booking> handle(GetBookingsQuery query) {
+    public List<BookingDTO> handle(GetBookingsQuery query) {
         if (query.getGuestId() != null && !query.getGuestId().isEmpty()) {
-            // In a real app, use a custom repository method findByGuestId
-            return bookingRepository.findAll().stream()
-                    .filter(booking -> query.getGuestId().equals(booking.getGuestId()))
-                    .toList();
+            return findByGuest(query).getContent();
+        }
+        return bookingRepository.findAllViews();
+    }
+
+    // One page of a guest's bookings, newest stay first; a Slice skips the count query
+    @Transactional(readOnly = true)
+    public Slice<BookingDTO> findByGuest(GetBookingsQuery query) {
+        if (query.getFrom() != null && query.getTo() != null && !query.getTo().isAfter(query.getFrom())) {
+            throw new RuntimeException("'to' must be after 'from'.");
         }
-        return bookingRepository.findAll();
+        int page = query.getPage() == null ? 0 : Math.max(0, query.getPage());
+        int size = query.getSize() == null ? DEFAULT_SIZE : Math.max(1, Math.min(query.getSize(), MAX_SIZE));
+        Sort newestFirst = Sort.by(Sort.Order.desc("checkInDate"), Sort.Order.desc("id"));
+        return bookingRepository.findByGuest(query.getGuestId(), query.getStatus(), query.getFrom(), query.getTo(),
+                PageRequest.of(page, size, newestFirst));
     }
 }
@@ -0,0 +1,36 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.InvoiceDTO;
+import com.hotelsystem.booking_service.application.dto.ServiceLineDTO;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class GetInvoicesQueryHandler {
+
+    private final InvoiceRepository invoiceRepository;
+
+    // Two statements however many invoices: the flat rows, then every service line
+    @Transactional(readOnly = true)
+    public List<InvoiceDTO> handle() {
+        List<InvoiceDTO> invoices = invoiceRepository.findAllViews();
+        Map<Long, InvoiceDTO> byId = new HashMap<>();
+        for (InvoiceDTO invoice : invoices) {
+            byId.put(invoice.getId(), invoice);
+        }
+        for (ServiceLineDTO line : invoiceRepository.findAllServiceLines()) {
+            InvoiceDTO invoice = byId.get(line.getInvoiceId());
+            if (invoice != null) {
+                invoice.getServices().add(line);
+            }
+        }
+        return invoices;
+    }
+}
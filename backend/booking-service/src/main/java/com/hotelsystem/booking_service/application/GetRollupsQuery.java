@@ -0,0 +1,17 @@
+package com.hotelsystem.booking_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRollupsQuery {
+    private LocalDate from;
+    private LocalDate to;
+    // Optional: one room type only
+    private String roomType;
+}
@@ -0,0 +1,125 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.RollupReport;
+import com.hotelsystem.booking_service.application.dto.RoomFacetsDTO;
+import com.hotelsystem.booking_service.application.dto.RoomTypeRollup;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.model.DailyRollup;
+import com.hotelsystem.booking_service.repository.DailyRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Occupancy, ADR and RevPAR from the daily rollups; the bookings table is not read. Room counts
+// per type come from room-service (the current inventory, applied to every night of the range)
+// and are cached briefly. Without them only rooms sold, revenue and ADR are reported.
+@Slf4j
+@Service
+public class GetRollupsQueryHandler {
+
+    private static final int MAX_NIGHTS = 3_660;
+
+    private final DailyRollupRepository dailyRollupRepository;
+    private final RoomServiceClient roomServiceClient;
+    private final long inventoryTtlNanos;
+
+    private volatile Map<String, Integer> inventory;
+    private volatile long inventoryLoadedAt;
+
+    public GetRollupsQueryHandler(DailyRollupRepository dailyRollupRepository, RoomServiceClient roomServiceClient,
+                                  @Value("${booking.rollups.inventory-ttl-ms:60000}") long inventoryTtlMillis) {
+        this.dailyRollupRepository = dailyRollupRepository;
+        this.roomServiceClient = roomServiceClient;
+        this.inventoryTtlNanos = inventoryTtlMillis * 1_000_000;
+    }
+
+    @Transactional(readOnly = true)
+    public RollupReport handle(GetRollupsQuery query) {
+        if (query.getFrom() == null || query.getTo() == null) {
+            throw new RuntimeException("'from' and 'to' are required.");
+        }
+        long nights = query.getTo().toEpochDay() - query.getFrom().toEpochDay();
+        if (nights <= 0) {
+            throw new RuntimeException("'to' must be after 'from'.");
+        }
+        if (nights > MAX_NIGHTS) {
+            throw new RuntimeException("A report covers at most " + MAX_NIGHTS + " nights.");
+        }
+
+        Map<String, Integer> rooms = inventory();
+        Map<String, long[]> soldByType = new TreeMap<>();
+        Map<String, BigDecimal> revenueByType = new TreeMap<>();
+        if (query.getRoomType() != null) {
+            soldByType.put(query.getRoomType(), new long[1]);
+            revenueByType.put(query.getRoomType(), BigDecimal.ZERO);
+        } else {
+            // Types with rooms but no sales still get a total row
+            rooms.keySet().forEach(type -> {
+                soldByType.put(type, new long[1]);
+                revenueByType.put(type, BigDecimal.ZERO);
+            });
+        }
+
+        List<RoomTypeRollup> perNight = new ArrayList<>();
+        for (DailyRollup rollup : dailyRollupRepository.findRange(query.getFrom(), query.getTo(),
+                query.getRoomType())) {
+            if (rollup.getRoomNights() == 0 && rollup.getRevenue().signum() == 0) {
+                continue;
+            }
+            perNight.add(rollup(rollup.getNight(), rollup.getRoomType(), rollup.getRoomNights(),
+                    rollup.getRevenue(), available(rooms, rollup.getRoomType(), 1)));
+            soldByType.computeIfAbsent(rollup.getRoomType(), type -> new long[1])[0] += rollup.getRoomNights();
+            revenueByType.merge(rollup.getRoomType(), rollup.getRevenue(), BigDecimal::add);
+        }
+
+        List<RoomTypeRollup> totals = new ArrayList<>();
+        soldByType.forEach((type, sold) -> totals.add(rollup(null, type, sold[0], revenueByType.get(type),
+                available(rooms, type, nights))));
+        return new RollupReport(query.getFrom(), query.getTo(), totals, perNight);
+    }
+
+    private static Long available(Map<String, Integer> rooms, String type, long nights) {
+        Integer count = rooms.get(type);
+        return count == null ? null : count * nights;
+    }
+
+    private static RoomTypeRollup rollup(LocalDate night, String type, long sold, BigDecimal revenue,
+                                         Long available) {
+        BigDecimal adr = sold == 0 ? null : revenue.divide(BigDecimal.valueOf(sold), 2, RoundingMode.HALF_UP);
+        BigDecimal occupancy = null;
+        BigDecimal revpar = null;
+        if (available != null && available > 0) {
+            occupancy = BigDecimal.valueOf(sold).divide(BigDecimal.valueOf(available), 4, RoundingMode.HALF_UP);
+            revpar = revenue.divide(BigDecimal.valueOf(available), 2, RoundingMode.HALF_UP);
+        }
+        return new RoomTypeRollup(night, type, sold, revenue, available, occupancy, adr, revpar);
+    }
+
+    // Rooms per type; the last known counts (or none) while room-service cannot be reached
+    private Map<String, Integer> inventory() {
+        Map<String, Integer> current = inventory;
+        if (current != null && System.nanoTime() - inventoryLoadedAt < inventoryTtlNanos) {
+            return current;
+        }
+        try {
+            RoomFacetsDTO facets = roomServiceClient.get("/api/rooms/facets", RoomFacetsDTO.class);
+            if (facets != null && facets.getTypes() != null) {
+                current = facets.getTypes();
+                inventory = current;
+                inventoryLoadedAt = System.nanoTime();
+            }
+        } catch (Exception e) {
+            log.debug("Room inventory lookup failed: {}", e.getMessage());
+        }
+        return current != null ? current : Map.of();
+    }
+}
@@ -0,0 +1,74 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+// Stamps an Idempotency-Key claim as committed inside the transaction that carries out the request,
+// so once the request's writes are durable the key can never run again, even if storing the response
+// fails afterwards. The update is fenced on the claim's creation time: a request whose claim was taken
+// over as abandoned finds no row to stamp and rolls back instead of committing a second time.
+@Component
+@RequiredArgsConstructor
+public class IdempotencyCommitMarker implements TransactionExecutionListener {
+
+    private final IdempotencyRecordRepository repository;
+    private final ThreadLocal<Claim> pending = new ThreadLocal<>();
+
+    // Claims the next writing transaction this thread begins
+    void bind(String id, LocalDateTime claimedAt) {
+        pending.set(new Claim(id, claimedAt));
+    }
+
+    // True when a transaction carrying the claim committed
+    boolean unbind() {
+        Claim claim = pending.get();
+        pending.remove();
+        return claim != null && claim.committed;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        Claim claim = pending.get();
+        if (claim == null || claim.registered || claim.committed || beginFailure != null
+                || transaction.isReadOnly() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        claim.registered = true;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (repository.markCommitted(claim.id, claim.claimedAt, LocalDateTime.now()) == 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "A request with this Idempotency-Key is still being processed.");
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                claim.registered = false;
+                claim.committed = status == STATUS_COMMITTED;
+            }
+        });
+    }
+
+    private static final class Claim {
+        private final String id;
+        private final LocalDateTime claimedAt;
+        private boolean registered;
+        private boolean committed;
+
+        Claim(String id, LocalDateTime claimedAt) {
+            this.id = id;
+            this.claimedAt = claimedAt;
+        }
+    }
+}
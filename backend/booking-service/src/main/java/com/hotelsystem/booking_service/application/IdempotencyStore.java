@@ -0,0 +1,282 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.model.IdempotencyRecord;
+import com.hotelsystem.booking_service.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Runs a create request at most once per Idempotency-Key and replays its result to retries.
+// Completed results live in idempotency_records for the TTL, fronted by a small in-memory LRU so
+// a retry storm is answered from memory. Duplicates arriving while the first is still running
+// wait for it in this process; on another instance they find the claim row and get a 409.
+// Failed requests are not stored: their key is released and a retry runs again. A request whose
+// transaction committed keeps its key even if its response could not be stored (see IdempotencyCommitMarker).
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyCommitMarker commitMarker;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final int maxCached;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, Stored> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter cacheHits;
+    private final Counter storeHits;
+    private final Counter coalesced;
+    private final Counter executed;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, IdempotencyCommitMarker commitMarker,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${booking.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${booking.idempotency.claim-timeout-ms:30000}") long claimTimeoutMillis,
+                            @Value("${booking.idempotency.max-cached:10000}") int maxCached) {
+        this.repository = repository;
+        this.commitMarker = commitMarker;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+        this.maxCached = maxCached;
+        this.cacheHits = meterRegistry.counter("booking.idempotency.requests", "result", "cache");
+        this.storeHits = meterRegistry.counter("booking.idempotency.requests", "result", "store");
+        this.coalesced = meterRegistry.counter("booking.idempotency.requests", "result", "coalesced");
+        this.executed = meterRegistry.counter("booking.idempotency.requests", "result", "executed");
+    }
+
+    // Without a key the action simply runs. request is the bound body, used to spot a reused key.
+    public <T> Result<T> execute(String operation, String key, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters.");
+        }
+        String id = operation + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        Stored cached = cached(id);
+        if (cached != null) {
+            cacheHits.increment();
+            return replay(cached, fingerprint, type);
+        }
+
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            coalesced.increment();
+            return replay(await(running), fingerprint, type);
+        }
+        try {
+            return runOnce(id, fingerprint, type, action, mine);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    // Completes mine with what duplicates waiting in this process should replay
+    private <T> Result<T> runOnce(String id, String fingerprint, Class<T> type, Supplier<T> action,
+                                  CompletableFuture<Stored> mine) {
+        // Millisecond precision, so the claim time reads back equal for the fenced updates
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Stored previous = load(id, now);
+        if (previous != null) {
+            storeHits.increment();
+            mine.complete(previous);
+            return replay(previous, fingerprint, type);
+        }
+        try {
+            transactionTemplate.execute(status -> repository.claim(id, fingerprint, now, now.plus(ttl)));
+        } catch (DataIntegrityViolationException e) {
+            // Claimed in the meantime by another instance
+            Stored winner = load(id, now);
+            if (winner == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still being processed.");
+            }
+            storeHits.increment();
+            mine.complete(winner);
+            return replay(winner, fingerprint, type);
+        }
+
+        T value;
+        commitMarker.bind(id, now);
+        try {
+            value = action.get();
+        } catch (RuntimeException e) {
+            if (!commitMarker.unbind()) {
+                transactionTemplate.execute(status -> repository.release(id, now));
+            }
+            throw e;
+        }
+        commitMarker.unbind();
+        executed.increment();
+        String json = write(value);
+        try {
+            transactionTemplate.execute(status -> repository.complete(id, json));
+        } catch (RuntimeException e) {
+            // The request itself is durable; retries get a 409 rather than running it again
+            log.warn("Could not store the response for idempotency key {}: {}", id, e.getMessage());
+        }
+        Stored stored = new Stored(fingerprint, json, now.plus(ttl));
+        cache(id, stored);
+        mine.complete(stored);
+        return new Result<>(value, false);
+    }
+
+    // The completed record for the key, or null when there is none (or it expired, or its claim was
+    // abandoned before committing). A claim still running elsewhere is a conflict, and so is a committed
+    // request whose response was lost: running it again would repeat its writes.
+    private Stored load(String id, LocalDateTime now) {
+        IdempotencyRecord record = repository.findById(id).orElse(null);
+        if (record == null) {
+            return null;
+        }
+        if (record.getExpiresAt().isBefore(now)) {
+            repository.deleteById(id);
+            return null;
+        }
+        if (record.getResponse() == null) {
+            if (record.getCommittedAt() != null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key was already processed, but its response was not kept.");
+            }
+            if (record.getCreatedAt().plus(claimTimeout).isBefore(now)) {
+                // If that request is in fact still running, its commit now fails the fence and rolls back
+                transactionTemplate.execute(status -> repository.release(id, record.getCreatedAt()));
+                return null;
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed.");
+        }
+        Stored stored = new Stored(record.getFingerprint(), record.getResponse(), record.getExpiresAt());
+        cache(id, stored);
+        return stored;
+    }
+
+    private Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.get(claimTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Same request, same outcome
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a duplicate request.");
+        }
+    }
+
+    private <T> Result<T> replay(Stored stored, String fingerprint, Class<T> type) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request.");
+        }
+        try {
+            return new Result<>(objectMapper.readValue(stored.response(), type), true);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored response is unreadable", e);
+        }
+    }
+
+    private Stored cached(String id) {
+        lock.lock();
+        try {
+            Stored stored = cache.get(id);
+            if (stored != null && stored.expiresAt().isBefore(LocalDateTime.now())) {
+                cache.remove(id);
+                return null;
+            }
+            return stored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cache(String id, Stored stored) {
+        lock.lock();
+        try {
+            cache.put(id, stored);
+            if (cache.size() > maxCached) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(write(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    // replayed is true when the value comes from an earlier execution
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private record Stored(String fingerprint, String response, LocalDateTime expiresAt) {
+    }
+}
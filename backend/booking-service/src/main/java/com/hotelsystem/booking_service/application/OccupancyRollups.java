@@ -0,0 +1,163 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.ReservationEventMessage;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.model.RollupStay;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.RollupStayRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Keeps daily_rollups in step with bookings. Fed by the outbox, so it runs after the booking
+// change commits: for each booking in a batch the stay it counted before is taken off night by
+// night and the booking as it is now is added, and the net per-night deltas are merged in one
+// JDBC batch. Revenue is spread evenly over the nights, leftover cents on the first ones.
+@Component
+@RequiredArgsConstructor
+public class OccupancyRollups implements ReservationEventSubscriber {
+
+    static final String UNKNOWN_TYPE = "UNKNOWN";
+
+    private static final String MERGE = "merge into daily_rollups r"
+            + " using (values (cast(? as date), cast(? as varchar(32)), cast(? as bigint), cast(? as decimal(19, 2))))"
+            + " d(night, room_type, room_nights, revenue) on r.night = d.night and r.room_type = d.room_type"
+            + " when matched then update set r.room_nights = r.room_nights + d.room_nights,"
+            + " r.revenue = r.revenue + d.revenue"
+            + " when not matched then insert (night, room_type, room_nights, revenue)"
+            + " values (d.night, d.room_type, d.room_nights, d.revenue)";
+
+    private final BookingRepository bookingRepository;
+    private final RollupStayRepository rollupStayRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // One writer at a time, so two first inserts of the same night cannot collide
+    private final Lock lock = new ReentrantLock();
+
+    @Override
+    public String name() {
+        return "rollups";
+    }
+
+    @Override
+    public void deliver(List<ReservationEventMessage> batch) {
+        Set<Long> bookingIds = new LinkedHashSet<>();
+        for (ReservationEventMessage message : batch) {
+            bookingIds.add(message.getBookingId());
+        }
+        apply(bookingIds);
+    }
+
+    // Brings the rollups up to date for these bookings; harmless to repeat
+    public void apply(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> reconcile(bookingIds));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reconcile(Collection<Long> bookingIds) {
+        Map<Long, RollupStay> current = new HashMap<>();
+        for (Object[] row : bookingRepository.findRollupStates(bookingIds)) {
+            RollupStay stay = countedStay(row);
+            if (stay != null) {
+                current.put(stay.getBookingId(), stay);
+            }
+        }
+        Map<Long, RollupStay> counted = new HashMap<>();
+        for (RollupStay stay : rollupStayRepository.findAllById(bookingIds)) {
+            counted.put(stay.getBookingId(), stay);
+        }
+
+        Map<DeltaKey, long[]> deltas = new HashMap<>();
+        List<RollupStay> added = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            RollupStay before = counted.get(bookingId);
+            RollupStay now = current.get(bookingId);
+            if (now == null ? before == null : now.equals(before)) {
+                continue;
+            }
+            if (before != null) {
+                addNights(deltas, before, -1);
+            }
+            if (now == null) {
+                removed.add(bookingId);
+            } else {
+                addNights(deltas, now, 1);
+                if (before == null) {
+                    added.add(now);
+                } else {
+                    // Managed entity: the change is flushed on commit
+                    before.setRoomType(now.getRoomType());
+                    before.setCheckInDate(now.getCheckInDate());
+                    before.setNightsEnd(now.getNightsEnd());
+                    before.setTotalPrice(now.getTotalPrice());
+                }
+            }
+        }
+        rollupStayRepository.saveAll(added);
+        rollupStayRepository.deleteAllByIdInBatch(removed);
+
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                rows.add(new Object[]{Date.valueOf(key.night()), key.roomType(), delta[0],
+                        BigDecimal.valueOf(delta[1], 2)});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE, rows);
+        }
+    }
+
+    // row is {id, roomType, checkInDate, checkOutDate, status, totalPrice}; cancelled stays count for nothing
+    private static RollupStay countedStay(Object[] row) {
+        if (row[4] == BookingStatus.CANCELLED || row[2] == null || row[3] == null) {
+            return null;
+        }
+        LocalDate checkIn = (LocalDate) row[2];
+        LocalDate checkOut = (LocalDate) row[3];
+        LocalDate nightsEnd = checkOut.isAfter(checkIn) ? checkOut : checkIn.plusDays(1);
+        BigDecimal total = row[5] == null ? BigDecimal.ZERO : (BigDecimal) row[5];
+        String roomType = row[1] == null ? UNKNOWN_TYPE : (String) row[1];
+        return new RollupStay((Long) row[0], roomType, checkIn, nightsEnd, total.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static void addNights(Map<DeltaKey, long[]> deltas, RollupStay stay, int sign) {
+        long nights = stay.getNightsEnd().toEpochDay() - stay.getCheckInDate().toEpochDay();
+        long cents = stay.getTotalPrice().movePointRight(2).longValueExact();
+        long perNight = cents / nights;
+        long leftover = cents % nights;
+        for (long i = 0; i < nights; i++) {
+            long[] delta = deltas.computeIfAbsent(
+                    new DeltaKey(stay.getCheckInDate().plusDays(i), stay.getRoomType()), key -> new long[2]);
+            delta[0] += sign;
+            delta[1] += sign * (perNight + (i < leftover ? 1 : 0));
+        }
+    }
+
+    private record DeltaKey(LocalDate night, String roomType) {
+    }
+}
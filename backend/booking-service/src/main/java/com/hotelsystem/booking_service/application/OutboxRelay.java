@@ -0,0 +1,123 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.application.dto.ReservationEventMessage;
+import com.hotelsystem.booking_service.model.OutboxEvent;
+import com.hotelsystem.booking_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Drains the outbox to each subscriber in ID order, a batch at a time. Rows are deleted only after
+// the subscriber accepted the batch, so delivery is at-least-once; a failing subscriber is retried
+// on the next poll from the same event and never holds up the others. Events of one booking are
+// written by transactions that hold the booking's row lock, so ID order is their commit order.
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<ReservationEventSubscriber> subscribers;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+
+    // One drain at a time per process
+    private final Lock lock = new ReentrantLock();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<ReservationEventSubscriber> subscribers,
+                       ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.max-batches-per-poll:50}") int maxBatchesPerPoll) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        for (ReservationEventSubscriber subscriber : subscribers) {
+            meterRegistry.gauge("booking.outbox.pending", Tags.of("subscriber", subscriber.name()), this,
+                    relay -> relay.pending(subscriber));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            for (ReservationEventSubscriber subscriber : subscribers) {
+                drain(subscriber);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain(ReservationEventSubscriber subscriber) {
+        String name = subscriber.name();
+        Timer lag = meterRegistry.timer("booking.outbox.publish.lag", "subscriber", name);
+        DistributionSummary batchSizes = meterRegistry.summary("booking.outbox.batch.size", "subscriber", name);
+        Counter failures = meterRegistry.counter("booking.outbox.delivery.failures", "subscriber", name);
+
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            List<OutboxEvent> rows = outboxEventRepository.findBySubscriberOrderByIdAsc(name,
+                    PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                List<ReservationEventMessage> batch = new ArrayList<>(rows.size());
+                for (OutboxEvent row : rows) {
+                    batch.add(toMessage(row));
+                }
+                subscriber.deliver(batch);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Delivering {} outbox events to {} failed, retrying on the next poll: {}", rows.size(),
+                        name, e.getMessage());
+                return;
+            }
+            outboxEventRepository.deleteAllInBatch(rows);
+
+            LocalDateTime now = LocalDateTime.now();
+            batchSizes.record(rows.size());
+            for (OutboxEvent row : rows) {
+                lag.record(Duration.between(row.getCreatedAt(), now));
+            }
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private ReservationEventMessage toMessage(OutboxEvent row) {
+        try {
+            return new ReservationEventMessage(row.getId(), row.getType(), row.getBookingId(), row.getCreatedAt(),
+                    objectMapper.readTree(row.getPayload()));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unreadable outbox event " + row.getId(), e);
+        }
+    }
+
+    private double pending(ReservationEventSubscriber subscriber) {
+        return outboxEventRepository.countBySubscriber(subscriber.name());
+    }
+}
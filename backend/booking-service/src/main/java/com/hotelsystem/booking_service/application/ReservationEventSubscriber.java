@@ -0,0 +1,15 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.ReservationEventMessage;
+
+import java.util.List;
+
+// Receives reservation events from the outbox relay, oldest first. Throwing leaves the whole batch
+// in the outbox to be delivered again, so deliver must tolerate events it has already seen.
+public interface ReservationEventSubscriber {
+
+    // Stored with each outbox row; keep it stable across releases
+    String name();
+
+    void deliver(List<ReservationEventMessage> batch);
+}
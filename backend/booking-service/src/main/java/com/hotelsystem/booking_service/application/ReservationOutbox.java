@@ -0,0 +1,70 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.event.ReservationCancelledEvent;
+import com.hotelsystem.booking_service.event.ReservationConfirmedEvent;
+import com.hotelsystem.booking_service.event.ReservationCreatedEvent;
+import com.hotelsystem.booking_service.event.ReservationRescheduledEvent;
+import com.hotelsystem.booking_service.model.OutboxEvent;
+import com.hotelsystem.booking_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes every reservation event into the outbox inside the transaction that raised it, one row
+// per subscriber, so an event exists exactly when its booking change commits. OutboxRelay delivers them.
+@Component
+@RequiredArgsConstructor
+public class ReservationOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<ReservationEventSubscriber> subscribers;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void on(ReservationCreatedEvent event) {
+        append(event.getBookingId(), event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void on(ReservationConfirmedEvent event) {
+        append(event.getBookingId(), event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void on(ReservationRescheduledEvent event) {
+        append(event.getBookingId(), event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void on(ReservationCancelledEvent event) {
+        append(event.getBookingId(), event);
+    }
+
+    private void append(Long bookingId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize " + event.getClass().getSimpleName(), e);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> rows = new ArrayList<>();
+        for (ReservationEventSubscriber subscriber : subscribers) {
+            rows.add(new OutboxEvent(null, subscriber.name(), bookingId, event.getClass().getSimpleName(), payload,
+                    now));
+        }
+        outboxEventRepository.saveAll(rows);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hotelsystem.booking_service.application;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Striped per-room locks: bookings for the same room run their overlap check and insert one at a
+// time, while bookings for other rooms (on other stripes) go ahead in parallel. Callers hold the
+// lock until their transaction has committed, so the next one sees the row.
+@Component
+public class RoomBookingLocks {
+
+    private final Lock[] stripes;
+
+    public RoomBookingLocks(@Value("${booking.room-lock-stripes:256}") int stripeCount) {
+        this.stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Locks every distinct stripe of roomIds in stripe order (so two callers never wait on each other)
+    public <T> T withRoomsLocked(Supplier<T> action, Long... roomIds) {
+        int[] indexes = Arrays.stream(roomIds).mapToInt(this::stripeOf).sorted().distinct().toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(Long roomId) {
+        // Spread sequential IDs; Long.hashCode alone maps neighbouring rooms to neighbouring stripes anyway
+        long h = roomId * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 32) % stripes.length);
+    }
+}
@@ -0,0 +1,77 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.application.dto.ReservationEventMessage;
+import com.hotelsystem.booking_service.application.dto.RoomOccupancyDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.event.ReservationCreatedEvent;
+import com.hotelsystem.booking_service.event.ReservationRescheduledEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Forwards reservation events from the outbox to room-service so its availability calendar
+// can answer date-range searches without calling back into booking-service. Occupancy updates are
+// upserts keyed by booking, so a redelivered batch is harmless.
+@Component
+@RequiredArgsConstructor
+public class RoomOccupancyNotifier implements ReservationEventSubscriber {
+
+    private final RoomServiceClient roomServiceClient;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "room-occupancy";
+    }
+
+    @Override
+    public void deliver(List<ReservationEventMessage> batch) {
+        List<RoomOccupancyDTO> occupancies = new ArrayList<>();
+        for (ReservationEventMessage message : batch) {
+            RoomOccupancyDTO occupancy = toOccupancy(message);
+            if (occupancy != null) {
+                occupancies.add(occupancy);
+            }
+        }
+        if (!occupancies.isEmpty()) {
+            roomServiceClient.post("/api/rooms/occupancy/batch", occupancies);
+        }
+    }
+
+    private RoomOccupancyDTO toOccupancy(ReservationEventMessage message) {
+        try {
+            switch (message.getType()) {
+                case "ReservationCreatedEvent": {
+                    ReservationCreatedEvent event = objectMapper.treeToValue(message.getPayload(),
+                            ReservationCreatedEvent.class);
+                    return stay(event.getBookingId(), event.getRoomId(), event.getCheckInDate(),
+                            event.getCheckOutDate());
+                }
+                case "ReservationRescheduledEvent": {
+                    ReservationRescheduledEvent event = objectMapper.treeToValue(message.getPayload(),
+                            ReservationRescheduledEvent.class);
+                    return stay(event.getBookingId(), event.getRoomId(), event.getCheckInDate(),
+                            event.getCheckOutDate());
+                }
+                case "ReservationCancelledEvent":
+                    return new RoomOccupancyDTO(message.getBookingId(), null, null, null, true);
+                default:
+                    // Confirmation does not change which nights are taken
+                    return null;
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unreadable reservation event " + message.getId(), e);
+        }
+    }
+
+    // Same minimum of one night the booking is priced and overlap-checked with
+    private static RoomOccupancyDTO stay(Long bookingId, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        LocalDate nightsEnd = checkOut.isAfter(checkIn) ? checkOut : checkIn.plusDays(1);
+        return new RoomOccupancyDTO(bookingId, roomId, checkIn, nightsEnd, false);
+    }
+}
@@ -0,0 +1,373 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.RoomPriceChangesDTO;
+import com.hotelsystem.booking_service.application.dto.RoomPricingDTO;
+import com.hotelsystem.booking_service.application.dto.RoomPricingRequestDTO;
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.application.dto.RoomRateDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.client.RoomServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+// Local copy of what room-service prices stays from, so pricing a booking does not wait on it: each
+// room's type and base price, plus the rate rules. Quotes are worked out here for any dates, so a
+// room's first stay loads it and every later stay is a hit. Rooms are dropped when room-service
+// reports a change to them, the rules (and every room) when it reports a rule change, and both are
+// reloaded in the background once they pass refresh-after. Past expire-after they are reloaded
+// first, and served only as a fallback while room-service is unavailable.
+@Slf4j
+@Component
+public class RoomQuoteCache {
+
+    private final RoomServiceClient roomServiceClient;
+    private final int maxSize;
+    private final long refreshAfterNanos;
+    private final long expireAfterNanos;
+    private final LongSupplier clock;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<Long, Entry> rooms = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshingRates = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "room-quote-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Hits and misses count room lookups; the rules are one shared entry
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleServed;
+    private final Counter invalidations;
+    private volatile Rates rates;
+    private volatile String version;
+    private volatile long lastSyncNanos;
+    // Written under the lock; bumped by every invalidation, and the rates one only by invalidateAll
+    private volatile long invalidationGeneration;
+    private volatile long ratesGeneration;
+
+    @Autowired
+    public RoomQuoteCache(RoomServiceClient roomServiceClient, MeterRegistry meterRegistry,
+                          @Value("${booking.room-quotes.max-size:10000}") int maxSize,
+                          @Value("${booking.room-quotes.refresh-after-ms:60000}") long refreshAfterMillis,
+                          @Value("${booking.room-quotes.expire-after-ms:600000}") long expireAfterMillis) {
+        this(roomServiceClient, meterRegistry, maxSize, refreshAfterMillis, expireAfterMillis, System::nanoTime);
+    }
+
+    RoomQuoteCache(RoomServiceClient roomServiceClient, MeterRegistry meterRegistry, int maxSize,
+                   long refreshAfterMillis, long expireAfterMillis, LongSupplier clock) {
+        this.roomServiceClient = roomServiceClient;
+        this.maxSize = maxSize;
+        this.refreshAfterNanos = refreshAfterMillis * 1_000_000;
+        this.expireAfterNanos = expireAfterMillis * 1_000_000;
+        this.clock = clock;
+        this.lastSyncNanos = clock.getAsLong();
+
+        this.hits = meterRegistry.counter("booking.room.quotes.cache", "result", "hit");
+        this.misses = meterRegistry.counter("booking.room.quotes.cache", "result", "miss");
+        this.staleServed = meterRegistry.counter("booking.room.quotes.cache", "result", "stale");
+        this.invalidations = meterRegistry.counter("booking.room.quotes.cache.invalidations");
+        meterRegistry.gauge("booking.room.quotes.cache.size", this, RoomQuoteCache::size);
+        meterRegistry.gauge("booking.room.quotes.cache.hit.ratio", this, RoomQuoteCache::hitRatio);
+        // How long ago room-service last confirmed what changed; cached prices are at most this stale
+        meterRegistry.gauge("booking.room.quotes.cache.staleness.seconds", this, RoomQuoteCache::stalenessSeconds);
+    }
+
+    // Total for the nights [checkIn, checkOut) of the room; throws when room-service does not know it
+    public RoomQuoteDTO quote(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomQuoteDTO quote = quotes(List.of(roomId), checkIn, checkOut).get(roomId);
+        if (quote == null) {
+            throw new RuntimeException("Room not found with ID: " + roomId);
+        }
+        return quote;
+    }
+
+    // Quotes for many rooms over the same nights: cached rooms locally, all the others in one call.
+    // Rooms room-service does not know are missing from the result.
+    public Map<Long, RoomQuoteDTO> quotes(Collection<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        if (!checkOut.isAfter(checkIn)) {
+            throw new RuntimeException("Check-out date must be after check-in date.");
+        }
+        long now = clock.getAsLong();
+        Map<Long, RoomPricingDTO> prices = new HashMap<>();
+        Map<Long, Entry> expired = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long roomId : new LinkedHashSet<>(roomIds)) {
+            Entry entry = get(roomId);
+            if (entry != null && now - entry.loadedAt < expireAfterNanos) {
+                hits.increment();
+                prices.put(roomId, entry.pricing);
+                if (now - entry.loadedAt >= refreshAfterNanos && refreshing.add(roomId)) {
+                    refresher.execute(() -> refresh(roomId));
+                }
+            } else {
+                misses.increment();
+                missing.add(roomId);
+                if (entry != null) {
+                    expired.put(roomId, entry);
+                }
+            }
+        }
+
+        Set<Long> stale = new HashSet<>();
+        if (!missing.isEmpty()) {
+            try {
+                prices.putAll(load(missing));
+            } catch (RoomServiceUnavailableException e) {
+                // Fallback while room-service is down or slow: expired rooms that no change has invalidated
+                if (expired.size() < missing.size()) {
+                    throw e;
+                }
+                expired.forEach((roomId, entry) -> prices.put(roomId, entry.pricing));
+                stale.addAll(expired.keySet());
+            }
+        }
+
+        Rates current = rates;
+        boolean ratesStale = current != null && now - current.loadedAt >= expireAfterNanos;
+        // Do not wait on room-service a second time in one call once it has just failed
+        if (current == null || (ratesStale && stale.isEmpty())) {
+            current = rates(current);
+            ratesStale = now - current.loadedAt >= expireAfterNanos;
+        } else if (!ratesStale && now - current.loadedAt >= refreshAfterNanos
+                && refreshingRates.compareAndSet(false, true)) {
+            refresher.execute(this::refreshRates);
+        }
+
+        Map<Long, RoomQuoteDTO> quotes = new HashMap<>();
+        for (RoomPricingDTO pricing : prices.values()) {
+            quotes.put(pricing.getRoomId(), price(pricing, current, checkIn, checkOut));
+            if (ratesStale || stale.contains(pricing.getRoomId())) {
+                staleServed.increment();
+            }
+        }
+        return quotes;
+    }
+
+    // Polls room-service for what changed since the last poll and drops the affected entries
+    @Scheduled(fixedDelayString = "${booking.room-quotes.poll-interval-ms:2000}")
+    public void syncChanges() {
+        String path = "/api/rooms/price-changes" + (version == null ? "" : "?since=" + version);
+        RoomPriceChangesDTO changes;
+        try {
+            changes = roomServiceClient.get(path, RoomPriceChangesDTO.class);
+        } catch (Exception e) {
+            log.debug("Room price change poll failed: {}", e.getMessage());
+            return;
+        }
+        if (changes == null) {
+            return;
+        }
+        // The first poll only learns the version; entries loaded before it are dropped too
+        if (changes.isAllRooms() || version == null) {
+            invalidateAll();
+        } else if (changes.getRoomIds() != null) {
+            for (Long roomId : changes.getRoomIds()) {
+                invalidate(roomId);
+            }
+        }
+        version = changes.getVersion();
+        lastSyncNanos = clock.getAsLong();
+    }
+
+    public void invalidate(Long roomId) {
+        lock.lock();
+        try {
+            invalidationGeneration++;
+            if (rooms.remove(roomId) != null) {
+                invalidations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidationGeneration++;
+            ratesGeneration++;
+            invalidations.increment(rooms.size() + (rates == null ? 0 : 1));
+            rooms.clear();
+            rates = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return rooms.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    double stalenessSeconds() {
+        return (clock.getAsLong() - lastSyncNanos) / 1e9;
+    }
+
+    // Same rules as room-service's rate calendar: per night the newest matching rule of the room's
+    // type, otherwise the room's own price, each rounded to cents
+    private static RoomQuoteDTO price(RoomPricingDTO pricing, Rates rates, LocalDate checkIn, LocalDate checkOut) {
+        List<RoomRateDTO> rules = rates.byType.getOrDefault(pricing.getRoomType(), List.of());
+        long baseCents = toCents(pricing.getPricePerNight());
+        long cents = 0;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            cents += rateOn(rules, night, baseCents);
+        }
+        RoomQuoteDTO quote = new RoomQuoteDTO();
+        quote.setRoomId(pricing.getRoomId());
+        quote.setCheckInDate(checkIn);
+        quote.setCheckOutDate(checkOut);
+        quote.setNights((int) (checkOut.toEpochDay() - checkIn.toEpochDay()));
+        quote.setTotalPrice(BigDecimal.valueOf(cents, 2));
+        quote.setRoomType(pricing.getRoomType());
+        return quote;
+    }
+
+    // rules are newest first
+    private static long rateOn(List<RoomRateDTO> rules, LocalDate night, long baseCents) {
+        int weekdayBit = 1 << (night.getDayOfWeek().getValue() - 1);
+        for (RoomRateDTO rule : rules) {
+            if (!night.isBefore(rule.getStartDate()) && night.isBefore(rule.getEndDate())
+                    && (rule.getDaysOfWeek() == null || (rule.getDaysOfWeek() & weekdayBit) != 0)) {
+                return toCents(rule.getPricePerNight());
+            }
+        }
+        return baseCents;
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private void refresh(Long roomId) {
+        try {
+            load(List.of(roomId));
+        } catch (Exception e) {
+            // The current entry keeps serving until it expires
+            log.debug("Refreshing price of room {} failed: {}", roomId, e.getMessage());
+        } finally {
+            refreshing.remove(roomId);
+        }
+    }
+
+    private void refreshRates() {
+        try {
+            loadRates();
+        } catch (Exception e) {
+            log.debug("Refreshing room rates failed: {}", e.getMessage());
+        } finally {
+            refreshingRates.set(false);
+        }
+    }
+
+    private Map<Long, RoomPricingDTO> load(List<Long> roomIds) {
+        long loadedAt = clock.getAsLong();
+        long generation = invalidationGeneration;
+        RoomPricingDTO[] loaded = roomServiceClient.post("/api/rooms/pricing", new RoomPricingRequestDTO(roomIds),
+                RoomPricingDTO[].class);
+        Map<Long, RoomPricingDTO> prices = new HashMap<>();
+        for (RoomPricingDTO pricing : loaded == null ? new RoomPricingDTO[0] : loaded) {
+            if (pricing.getRoomId() != null && pricing.getPricePerNight() != null) {
+                prices.put(pricing.getRoomId(), pricing);
+            }
+        }
+        lock.lock();
+        try {
+            // Prices fetched while an invalidation ran may predate the change; serve them but do not keep them
+            if (generation == invalidationGeneration) {
+                prices.values().forEach(pricing -> rooms.put(pricing.getRoomId(), new Entry(pricing, loadedAt)));
+                while (rooms.size() > maxSize) {
+                    rooms.remove(rooms.keySet().iterator().next());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return prices;
+    }
+
+    // The expired rules serve as the fallback; with none cached yet there is nothing to price from
+    private Rates rates(Rates expired) {
+        try {
+            return loadRates();
+        } catch (RoomServiceUnavailableException e) {
+            if (expired == null) {
+                throw e;
+            }
+            return expired;
+        }
+    }
+
+    private Rates loadRates() {
+        long loadedAt = clock.getAsLong();
+        long generation = ratesGeneration;
+        RoomRateDTO[] rules = roomServiceClient.get("/api/rooms/rates", RoomRateDTO[].class);
+        Map<String, List<RoomRateDTO>> byType = Arrays.stream(rules == null ? new RoomRateDTO[0] : rules)
+                .sorted(Comparator.comparing(RoomRateDTO::getId).reversed())
+                .collect(Collectors.groupingBy(RoomRateDTO::getRoomType));
+        Rates loaded = new Rates(byType, loadedAt);
+        lock.lock();
+        try {
+            if (generation == ratesGeneration) {
+                rates = loaded;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    private Entry get(Long roomId) {
+        lock.lock();
+        try {
+            return rooms.get(roomId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(RoomPricingDTO pricing, long loadedAt) {
+    }
+
+    private record Rates(Map<String, List<RoomRateDTO>> byType, long loadedAt) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.hotelsystem.booking_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Invoice every live booking checking out on the date that is not invoiced yet
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunBillingCommand {
+    private LocalDate checkOutDate;
+}
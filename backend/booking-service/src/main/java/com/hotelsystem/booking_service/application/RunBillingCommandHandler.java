@@ -0,0 +1,124 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.BillingRunResult;
+import com.hotelsystem.booking_service.model.Invoice;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Checkout-day billing: one query finds the day's uninvoiced bookings, which are split into chunks
+// invoiced in parallel, each chunk in its own transaction with batched inserts. Bookings that
+// already have an invoice are never selected, and the unique booking key on invoices rejects a
+// chunk that races with another invoice for the same booking, so running the day again only
+// fills in what is missing.
+@Slf4j
+@Service
+public class RunBillingCommandHandler {
+
+    private final BookingRepository bookingRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BigDecimal taxRate;
+    private final int chunkSize;
+    private final ExecutorService workers;
+
+    // One run at a time per process
+    private final Lock running = new ReentrantLock();
+
+    public RunBillingCommandHandler(BookingRepository bookingRepository, InvoiceRepository invoiceRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${booking.billing.tax-rate:0.10}") BigDecimal taxRate,
+                                    @Value("${booking.billing.workers:4}") int workers,
+                                    @Value("${booking.billing.chunk-size:500}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taxRate = taxRate;
+        this.chunkSize = chunkSize;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "billing-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BillingRunResult handle(RunBillingCommand command) {
+        if (command.getCheckOutDate() == null) {
+            throw new RuntimeException("Check-out date is required.");
+        }
+        if (!running.tryLock()) {
+            throw new RuntimeException("A billing run is already in progress.");
+        }
+        try {
+            long started = System.nanoTime();
+            long checkouts = bookingRepository.countLiveCheckouts(command.getCheckOutDate());
+            List<Object[]> due = bookingRepository.findUninvoicedCheckouts(command.getCheckOutDate());
+
+            LocalDateTime issueDate = LocalDateTime.now();
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < due.size(); from += chunkSize) {
+                List<Object[]> chunk = due.subList(from, Math.min(from + chunkSize, due.size()));
+                chunks.add(workers.submit(() -> transactionTemplate.execute(status -> invoice(chunk, issueDate))));
+            }
+
+            int invoiced = 0;
+            int failed = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                try {
+                    invoiced += chunks.get(i).get();
+                } catch (ExecutionException e) {
+                    int size = Math.min(chunkSize, due.size() - i * chunkSize);
+                    failed += size;
+                    log.warn("Billing {} checkouts of {} failed: {}", size, command.getCheckOutDate(),
+                            e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Billing run for " + command.getCheckOutDate() + " was interrupted.");
+                }
+            }
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            return new BillingRunResult(command.getCheckOutDate(), checkouts, invoiced,
+                    Math.max(0, checkouts - due.size()), failed, elapsedMillis);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    // rows are {bookingId, totalPrice}; the booking is only referenced, never loaded
+    private int invoice(List<Object[]> rows, LocalDateTime issueDate) {
+        List<Invoice> invoices = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Invoice invoice = new Invoice();
+            invoice.setBooking(bookingRepository.getReferenceById((Long) row[0]));
+            invoice.setIssueDate(issueDate);
+            invoice.setServices(new ArrayList<>());
+            invoice.setTaxRate(taxRate);
+            invoice.calculateTotal((BigDecimal) row[1]);
+            invoices.add(invoice);
+        }
+        invoiceRepository.saveAll(invoices);
+        return invoices.size();
+    }
+}
@@ -1,27 +1,59 @@
 package com.hotelsystem.booking_service.application;
 
+import com.hotelsystem.booking_service.event.ReservationCancelledEvent;
+import com.hotelsystem.booking_service.event.ReservationConfirmedEvent;
+import com.hotelsystem.booking_service.event.ReservationRescheduledEvent;
 import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.model.Invoice;
 import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import com.hotelsystem.booking_service.application.dto.RoomDTO;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
 import java.math.BigDecimal;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class UpdateBookingCommandHandler {
 
     private final BookingRepository bookingRepository;
-    private final org.springframework.web.client.RestTemplate restTemplate;
+    private final InvoiceRepository invoiceRepository;
+    private final RoomQuoteCache roomQuoteCache;
+    private final RoomBookingLocks roomBookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
+    // Runs under the lock of the room the booking ends up on, held until commit, like booking creation
     public void handle(UpdateBookingCommand command) {
-        Booking booking = bookingRepository.findById(command.getBookingId())
+        while (true) {
+            Long roomId = command.getRoomId() != null ? command.getRoomId() : bookingRepository
+                    .findById(command.getBookingId())
+                    .map(Booking::getRoomId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + command.getBookingId()));
+            Boolean applied = roomBookingLocks.withRoomsLocked(
+                    () -> transactionTemplate.execute(status -> apply(command, roomId)), roomId);
+            if (Boolean.TRUE.equals(applied)) {
+                return;
+            }
+        }
+    }
+
+    // False when another update moved the booking to a different room after roomId was read
+    private boolean apply(UpdateBookingCommand command, Long lockedRoomId) {
+        Booking booking = bookingRepository.findByIdForUpdate(command.getBookingId())
                 .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + command.getBookingId()));
+        if (command.getRoomId() == null && !booking.getRoomId().equals(lockedRoomId)) {
+            return false;
+        }
 
         boolean reciprocityNeeded = false;
+        boolean wasCancelled = booking.getStatus() == BookingStatus.CANCELLED;
+        boolean wasConfirmed = booking.getStatus() == BookingStatus.CONFIRMED;
 
         // Update fields if present
         if (command.getRoomId() != null) {
@@ -42,18 +74,15 @@ public class UpdateBookingCommandHandler {
 
         // Recalculate price if critical fields changed
         if (reciprocityNeeded) {
-            // Fetch Room Details to get Price
-            String roomServiceUrl = "http://localhost:10004/api/rooms/" + booking.getRoomId();
+            // Re-quote the stay with room-service's rate calendar
+            LocalDate checkOut = booking.getCheckOutDate();
+            if (!checkOut.isAfter(booking.getCheckInDate())) {
+                checkOut = booking.getCheckInDate().plusDays(1); // Minimum 1 night
+            }
             try {
-                RoomDTO room = restTemplate.getForObject(roomServiceUrl, RoomDTO.class);
-                
-                if (room != null) {
-                    long days = java.time.temporal.ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
-                    if (days < 1) days = 1; // Minimum 1 night
-                    
-                    java.math.BigDecimal total = room.getPricePerNight().multiply(java.math.BigDecimal.valueOf(days));
-                    booking.setTotalPrice(total);
-                }
+                RoomQuoteDTO quote = roomQuoteCache.quote(booking.getRoomId(), booking.getCheckInDate(), checkOut);
+                booking.setTotalPrice(quote.getTotalPrice());
+                booking.setRoomType(quote.getRoomType());
             } catch (Exception e) {
                 // Log error but maybe don't fail the whole update? Or do fail? 
                 // For safety, let's throw so data doesn't get corrupted with wrong price
@@ -61,6 +90,51 @@ public class UpdateBookingCommandHandler {
             }
         }
         
+        // A new room or new dates, or reviving a cancelled booking, must not overlap another live stay
+        if (booking.getStatus() != BookingStatus.CANCELLED && (reciprocityNeeded || wasCancelled)) {
+            LocalDate nightsEnd = booking.getCheckOutDate().isAfter(booking.getCheckInDate())
+                    ? booking.getCheckOutDate() : booking.getCheckInDate().plusDays(1);
+            if (bookingRepository.existsOverlapping(booking.getRoomId(), booking.getCheckInDate(), nightsEnd,
+                    booking.getId())) {
+                throw new RuntimeException("Room " + booking.getRoomId() + " is already booked between "
+                        + booking.getCheckInDate() + " and " + nightsEnd + ".");
+            }
+        }
+
         bookingRepository.save(booking);
+        if (reciprocityNeeded || wasCancelled != (booking.getStatus() == BookingStatus.CANCELLED)) {
+            syncInvoice(booking);
+        }
+
+        // Outbox events keep subscribers (room-service occupancy among them) in step with the booking
+        if (booking.getStatus() == BookingStatus.CANCELLED) {
+            if (!wasCancelled) {
+                eventPublisher.publishEvent(new ReservationCancelledEvent(booking.getId(), "Booking cancelled",
+                        LocalDateTime.now()));
+            }
+        } else if (reciprocityNeeded || wasCancelled) {
+            eventPublisher.publishEvent(new ReservationRescheduledEvent(booking.getId(), booking.getRoomId(),
+                    booking.getCheckInDate(), booking.getCheckOutDate()));
+        }
+        if (booking.getStatus() == BookingStatus.CONFIRMED && !wasConfirmed) {
+            eventPublisher.publishEvent(new ReservationConfirmedEvent(booking.getId(), LocalDateTime.now()));
+        }
+        return true;
+    }
+
+    // An invoice already issued follows the booking: a new price is billed on it, a cancelled stay is
+    // not billed at all. One holding only the stay goes with it, so CreateInvoice and billing runs
+    // issue a fresh one if the booking is revived; one with service lines keeps charging those.
+    private void syncInvoice(Booking booking) {
+        for (Invoice invoice : invoiceRepository.findByBookingId(booking.getId())) {
+            if (booking.getStatus() != BookingStatus.CANCELLED) {
+                invoice.calculateTotal();
+            } else if (invoice.getServices() == null || invoice.getServices().isEmpty()) {
+                booking.setInvoice(null);
+                invoiceRepository.delete(invoice);
+            } else {
+                invoice.calculateTotal(BigDecimal.ZERO);
+            }
+        }
     }
 }
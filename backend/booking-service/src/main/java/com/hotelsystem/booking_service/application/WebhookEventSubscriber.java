@@ -0,0 +1,35 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.ReservationEventMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+// Stand-in for a message broker: POSTs each batch of reservation events as a JSON array to the
+// configured URL, for services that would otherwise poll booking-service. Any non-2xx answer is
+// retried, so the receiver should skip event IDs it has already processed.
+@Component
+@ConditionalOnProperty("booking.outbox.webhook-url")
+public class WebhookEventSubscriber implements ReservationEventSubscriber {
+
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public WebhookEventSubscriber(RestTemplate restTemplate, @Value("${booking.outbox.webhook-url}") String url) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<ReservationEventMessage> batch) {
+        restTemplate.postForLocation(url, batch);
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingRunResult {
+    private LocalDate checkOutDate;
+    // Live bookings checking out that day
+    private long checkouts;
+    private int invoiced;
+    private long alreadyInvoiced;
+    // Left uninvoiced because their chunk failed; a re-run picks them up
+    private int failed;
+    private long elapsedMillis;
+}
@@ -0,0 +1,27 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import com.hotelsystem.booking_service.model.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Flat read model of a booking; the invoice is summarised by ID and amount instead of nested
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDTO {
+    private Long id;
+    private String guestId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private BookingStatus status;
+    private BigDecimal totalPrice;
+    private LocalDateTime createdAt;
+    private Long invoiceId;
+    private BigDecimal invoiceAmount;
+}
@@ -0,0 +1,24 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import com.hotelsystem.booking_service.model.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingExportRow {
+    private Long id;
+    private String guestId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private BookingStatus status;
+    private BigDecimal totalPrice;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// line is the 1-based position in the request; bookingId is null and error set when it was not booked
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingLineResult {
+    private int line;
+    private Long roomId;
+    private Long bookingId;
+    private BigDecimal totalPrice;
+    private String roomType;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingResult {
+    private int requested;
+    private int created;
+    private List<GroupBookingLineResult> lines = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Flat read model of an invoice: the booking by ID and guest, the service lines inline
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceDTO {
+    private Long id;
+    private Long bookingId;
+    private String guestId;
+    private LocalDateTime issueDate;
+    private BigDecimal subtotal;
+    private BigDecimal taxRate;
+    private BigDecimal taxAmount;
+    private BigDecimal amount;
+    private List<ServiceLineDTO> services = new ArrayList<>();
+
+    // Constructor expression target; services are filled in from a second query
+    public InvoiceDTO(Long id, Long bookingId, String guestId, LocalDateTime issueDate, BigDecimal subtotal,
+                      BigDecimal taxRate, BigDecimal taxAmount, BigDecimal amount) {
+        this(id, bookingId, guestId, issueDate, subtotal, taxRate, taxAmount, amount, new ArrayList<>());
+    }
+}
@@ -0,0 +1,19 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceExportRow {
+    private Long id;
+    private Long bookingId;
+    private String guestId;
+    private LocalDateTime issueDate;
+    private BigDecimal amount;
+}
@@ -0,0 +1,21 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A reservation event as subscribers receive it. id is unique per event and subscriber and
+// increases per booking, so a consumer can drop the redeliveries at-least-once delivery allows.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationEventMessage {
+    private Long id;
+    private String type;
+    private Long bookingId;
+    private LocalDateTime occurredAt;
+    private JsonNode payload;
+}
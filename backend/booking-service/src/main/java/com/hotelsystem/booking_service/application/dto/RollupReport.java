@@ -0,0 +1,19 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Nights [from, to): totals per room type, then one row per night and type that sold anything
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupReport {
+    private LocalDate from;
+    private LocalDate to;
+    private List<RoomTypeRollup> totals;
+    private List<RoomTypeRollup> nights;
+}
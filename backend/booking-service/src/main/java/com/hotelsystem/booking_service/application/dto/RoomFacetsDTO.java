@@ -0,0 +1,12 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+// The part of room-service's facets answer booking-service reads: how many rooms of each type exist
+@Data
+public class RoomFacetsDTO {
+    private int total;
+    private Map<String, Integer> types;
+}
@@ -0,0 +1,12 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RoomPriceChangesDTO {
+    private String version;
+    private List<Long> roomIds;
+    private boolean allRooms;
+}
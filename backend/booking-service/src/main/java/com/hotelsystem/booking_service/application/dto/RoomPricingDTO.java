@@ -0,0 +1,12 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class RoomPricingDTO {
+    private Long roomId;
+    private String roomType;
+    private BigDecimal pricePerNight;
+}
@@ -0,0 +1,16 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class RoomQuoteDTO {
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int nights;
+    private BigDecimal totalPrice;
+    private String roomType;
+}
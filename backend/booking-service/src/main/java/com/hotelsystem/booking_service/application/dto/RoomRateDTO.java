@@ -0,0 +1,18 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// A room-service rate rule: applies to the nights [startDate, endDate) of its room type
+@Data
+public class RoomRateDTO {
+    private Long id;
+    private String roomType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // Bit (dayOfWeek - 1) per weekday, Monday = bit 0; null means every day
+    private Integer daysOfWeek;
+    private BigDecimal pricePerNight;
+}
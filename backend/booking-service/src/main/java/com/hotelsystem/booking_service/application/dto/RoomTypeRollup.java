@@ -0,0 +1,25 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One room type's figures for a night, or for the whole range when night is null.
+// occupancy, adr and revpar are null when they cannot be computed (no rooms known, nothing sold).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomTypeRollup {
+    private LocalDate night;
+    private String roomType;
+    private long roomNightsSold;
+    private BigDecimal revenue;
+    // Rooms of the type times the nights covered
+    private Long roomNightsAvailable;
+    private BigDecimal occupancy;
+    private BigDecimal adr;
+    private BigDecimal revpar;
+}
@@ -0,0 +1,20 @@
+package com.hotelsystem.booking_service.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceLineDTO {
+    // Invoice the line belongs to; not serialized since it sits inside that invoice
+    @JsonIgnore
+    private Long invoiceId;
+    private String name;
+    private BigDecimal price;
+    private String description;
+}
@@ -0,0 +1,28 @@
+package com.hotelsystem.booking_service.bootstrap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// idempotency_records.response started out as varchar(8000). Schema update never changes the type
+// of an existing column, so databases created before it became a CLOB are widened here.
+@Component
+@RequiredArgsConstructor
+public class IdempotencyResponseColumnUpgrade {
+
+    // The schema is created/updated while the EntityManagerFactory is built
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void upgrade() {
+        String type = jdbcTemplate.query("select data_type from information_schema.columns"
+                        + " where lower(table_name) = 'idempotency_records' and lower(column_name) = 'response'",
+                rows -> rows.next() ? rows.getString(1) : null);
+        if (type != null && !type.equalsIgnoreCase("CHARACTER LARGE OBJECT")) {
+            jdbcTemplate.execute("alter table idempotency_records alter column response set data type clob");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotelsystem.booking_service.bootstrap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// invoices.booking_id became unique after databases could already hold two invoices for a booking.
+// Schema update only logs a warning when it cannot add the key and the service would run on without
+// it, so refuse to start until the extra invoices have been merged or removed by hand: which one is
+// right (paid, sent, corrected) is not something to guess here.
+@Component
+@RequiredArgsConstructor
+public class InvoiceUniquenessCheck {
+
+    private static final int SHOWN = 20;
+
+    // The schema is created/updated while the EntityManagerFactory is built
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void check() {
+        List<Long> bookingIds = jdbcTemplate.queryForList("select booking_id from invoices"
+                + " where booking_id is not null group by booking_id having count(*) > 1"
+                + " order by booking_id limit " + (SHOWN + 1), Long.class);
+        if (!bookingIds.isEmpty()) {
+            String shown = bookingIds.size() > SHOWN ? bookingIds.subList(0, SHOWN) + " and more" : bookingIds.toString();
+            throw new IllegalStateException("Bookings " + shown + " have more than one invoice; invoices.booking_id"
+                    + " must be unique. Merge or delete the extra invoices before starting booking-service.");
+        }
+    }
+}
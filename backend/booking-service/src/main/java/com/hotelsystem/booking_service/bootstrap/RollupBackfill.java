@@ -0,0 +1,45 @@
+package com.hotelsystem.booking_service.bootstrap;
+
+import com.hotelsystem.booking_service.application.OccupancyRollups;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.RollupStayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Bookings made before the rollups existed have no outbox events; count them once, on the first
+// start with an empty rollup ledger. Later changes arrive through the outbox as usual.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupBackfill {
+
+    private static final int CHUNK = 500;
+
+    private final BookingRepository bookingRepository;
+    private final RollupStayRepository rollupStayRepository;
+    private final OccupancyRollups occupancyRollups;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void backfill() {
+        if (rollupStayRepository.count() > 0) {
+            return;
+        }
+        long after = 0;
+        int total = 0;
+        List<Long> ids;
+        while (!(ids = bookingRepository.findIdsAfter(after, PageRequest.of(0, CHUNK))).isEmpty()) {
+            occupancyRollups.apply(ids);
+            after = ids.get(ids.size() - 1);
+            total += ids.size();
+        }
+        if (total > 0) {
+            log.info("Rolled up {} existing bookings", total);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.hotelsystem.booking_service.bootstrap;
+
+import com.hotelsystem.booking_service.client.VirtualThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Reports which threads serve requests and checks the pool sizing virtual-thread mode relies on.
+// H2 runs each statement inside synchronized blocks, and a virtual thread blocked there (on file
+// I/O or on another session) pins its carrier. The connection pool is the only cap on how many
+// threads are inside H2 at once, so it has to stay below the number of carriers, or a burst of
+// queries can pin all of them and stall every other request. The billing and confirmation workers
+// draw from the same pool, so they have to leave requests some of it.
+@Slf4j
+@Component
+public class ThreadingModeCheck {
+
+    private final DataSource dataSource;
+    private final boolean virtualThreads;
+    private final int backgroundWorkers;
+
+    public ThreadingModeCheck(DataSource dataSource,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                              @Value("${booking.billing.workers:4}") int billingWorkers,
+                              @Value("${booking.confirmation.enabled:true}") boolean confirmation,
+                              @Value("${booking.confirmation.workers:2}") int confirmationWorkers) {
+        this.dataSource = dataSource;
+        this.virtualThreads = virtualThreads;
+        this.backgroundWorkers = billingWorkers + (confirmation ? confirmationWorkers : 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void check() {
+        if (!virtualThreads) {
+            log.info("Serving requests on platform threads");
+            return;
+        }
+        if (!VirtualThreads.supported()) {
+            log.warn("Virtual threads were requested but need Java 21 or later (running on {}); "
+                    + "serving requests on platform threads", Runtime.version());
+            return;
+        }
+        int carriers = VirtualThreads.carriers();
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            log.info("Serving requests on virtual threads ({} carriers)", carriers);
+            return;
+        }
+        int poolSize = hikari.getMaximumPoolSize();
+        log.info("Serving requests on virtual threads ({} carriers, {} connections)", carriers, poolSize);
+        if (poolSize >= carriers) {
+            log.warn("Connection pool allows {} connections but there are only {} carrier threads; "
+                    + "queries pinned inside the JDBC driver can starve other requests. Set "
+                    + "spring.datasource.hikari.maximum-pool-size below {}", poolSize, carriers, carriers);
+        }
+        if (backgroundWorkers >= poolSize) {
+            log.warn("Billing and confirmation workers can hold all {} connections ({} workers); requests "
+                    + "wait for a connection while they run. Lower booking.billing.workers or "
+                    + "booking.confirmation.workers", poolSize, backgroundWorkers);
+        }
+    }
+}
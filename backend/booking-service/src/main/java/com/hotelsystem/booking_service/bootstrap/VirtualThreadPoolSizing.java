@@ -0,0 +1,30 @@
+package com.hotelsystem.booking_service.bootstrap;
+
+import com.hotelsystem.booking_service.client.VirtualThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+// In virtual-thread mode the connection pool is sized one below the carrier count, the most that
+// can be pinned inside H2 without stalling every request (see ThreadingModeCheck). An explicit
+// spring.datasource.hikari.maximum-pool-size still wins.
+@Component
+public class VirtualThreadPoolSizing implements BeanPostProcessor {
+
+    private final Environment environment;
+
+    public VirtualThreadPoolSizing(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikari && VirtualThreads.supported()
+                && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            hikari.setMaximumPoolSize(Math.max(1, VirtualThreads.carriers() - 1));
+        }
+        return bean;
+    }
+}
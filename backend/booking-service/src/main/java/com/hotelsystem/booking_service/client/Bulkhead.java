@@ -0,0 +1,34 @@
+package com.hotelsystem.booking_service.client;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Caps concurrent calls to a dependency so a slow one holds at most maxConcurrent request threads;
+// callers past the cap wait up to maxWait and are then turned away
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+
+    public Bulkhead(int maxConcurrent, long maxWaitMillis) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public boolean tryEnter() {
+        try {
+            return permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+}
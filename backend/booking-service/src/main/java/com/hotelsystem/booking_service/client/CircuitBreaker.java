@@ -0,0 +1,96 @@
+package com.hotelsystem.booking_service.client;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Opens after failureThreshold consecutive failures and rejects calls for openMillis; then lets a
+// single trial call through (half-open), which closes the circuit on success or reopens it on failure
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private final Lock lock = new ReentrantLock();
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000;
+        this.clock = clock;
+    }
+
+    // True when the call may go ahead; the caller must then report onSuccess or onFailure
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && !trialInFlight) {
+                trialInFlight = true;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The acquired call never ran (e.g. the bulkhead turned it away); no outcome is recorded
+    public void release() {
+        lock.lock();
+        try {
+            trialInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            state = State.CLOSED;
+            failures = 0;
+            trialInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            trialInFlight = false;
+            if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = clock.getAsLong();
+                failures = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotelsystem.booking_service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.Supplier;
+
+// The one way booking-service talks to room-service. Every call passes a bulkhead and a circuit
+// breaker; timeouts, connection failures and 5xx answers count against the breaker and surface as
+// RoomServiceUnavailableException. Client errors (4xx) are passed through unchanged.
+@Component
+public class RoomServiceClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter rejected;
+    private final Counter failed;
+
+    @Autowired
+    public RoomServiceClient(RestTemplate restTemplate, MeterRegistry meterRegistry,
+                             @Value("${booking.room-service.base-url:http://localhost:10004}") String baseUrl,
+                             @Value("${booking.room-service.max-concurrent-calls:20}") int maxConcurrentCalls,
+                             @Value("${booking.room-service.max-wait-ms:100}") long maxWaitMillis,
+                             @Value("${booking.room-service.failure-threshold:5}") int failureThreshold,
+                             @Value("${booking.room-service.open-ms:10000}") long openMillis) {
+        this(restTemplate, meterRegistry, baseUrl, new Bulkhead(maxConcurrentCalls, maxWaitMillis),
+                new CircuitBreaker(failureThreshold, openMillis));
+    }
+
+    RoomServiceClient(RestTemplate restTemplate, MeterRegistry meterRegistry, String baseUrl, Bulkhead bulkhead,
+                      CircuitBreaker circuitBreaker) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.rejected = meterRegistry.counter("booking.room.service.calls", "result", "rejected");
+        this.failed = meterRegistry.counter("booking.room.service.calls", "result", "failed");
+        meterRegistry.gauge("booking.room.service.circuit.open", circuitBreaker,
+                breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1);
+        meterRegistry.gauge("booking.room.service.bulkhead.available", bulkhead, Bulkhead::available);
+    }
+
+    // path is relative to the room-service base URL, e.g. "/api/rooms/7/quote?..."
+    public <T> T get(String path, Class<T> type) {
+        return call(path, () -> restTemplate.getForObject(baseUrl + path, type));
+    }
+
+    public void post(String path, Object body) {
+        call(path, () -> restTemplate.postForLocation(baseUrl + path, body));
+    }
+
+    public <T> T post(String path, Object body, Class<T> type) {
+        return call(path, () -> restTemplate.postForObject(baseUrl + path, body, type));
+    }
+
+    private <T> T call(String path, Supplier<T> request) {
+        // Breaker first, so an open circuit fails fast instead of queueing at the bulkhead
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.increment();
+            throw new RoomServiceUnavailableException("room-service circuit is open");
+        }
+        if (!bulkhead.tryEnter()) {
+            circuitBreaker.release();
+            rejected.increment();
+            throw new RoomServiceUnavailableException("Too many concurrent room-service calls");
+        }
+        try {
+            T result = request.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            circuitBreaker.onFailure();
+            failed.increment();
+            throw new RoomServiceUnavailableException("room-service call " + path + " failed: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            circuitBreaker.onSuccess();
+            throw e;
+        } finally {
+            bulkhead.exit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelsystem.booking_service.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class RoomServiceClientConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // One shared JDK HttpClient: it keeps connections alive and reuses them across requests,
+    // and unlike the default RestTemplate setup it never waits forever to connect or to read.
+    // In virtual-thread mode its own tasks run on virtual threads too, instead of a cached pool
+    // of platform threads that grows with the number of requests waiting on room-service.
+    @Bean
+    public RestTemplate restTemplate(@Value("${booking.room-service.http-version:HTTP_1_1}") HttpClient.Version version,
+                                     @Value("${booking.room-service.connect-timeout-ms:1000}") long connectTimeoutMillis,
+                                     @Value("${booking.room-service.read-timeout-ms:2000}") long readTimeoutMillis) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        if (virtualThreads && VirtualThreads.supported()) {
+            builder.executor(VirtualThreads.newPerTaskExecutor());
+        }
+        HttpClient httpClient = builder.build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        return new RestTemplate(requestFactory);
+    }
+}
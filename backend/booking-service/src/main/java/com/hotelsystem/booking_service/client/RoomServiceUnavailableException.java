@@ -0,0 +1,14 @@
+package com.hotelsystem.booking_service.client;
+
+// room-service did not answer in time, answered with a server error, or was not called at all
+// because the circuit is open or the bulkhead is full
+public class RoomServiceUnavailableException extends RuntimeException {
+
+    public RoomServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public RoomServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
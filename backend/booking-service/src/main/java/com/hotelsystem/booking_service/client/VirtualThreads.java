@@ -0,0 +1,31 @@
+package com.hotelsystem.booking_service.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Virtual threads need Java 21 while the build still targets 17, so the executor is looked up at
+// runtime. On an older JVM virtual-thread mode is a no-op and everything stays on platform threads.
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean supported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    // Platform threads that run virtual threads: one per core unless the scheduler is configured otherwise
+    public static int carriers() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+
+    // One new virtual thread per task; throws when the JVM has no virtual threads
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on "
+                    + Runtime.version(), e);
+        }
+    }
+}
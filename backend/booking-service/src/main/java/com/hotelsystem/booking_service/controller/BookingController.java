@@ -2,18 +2,34 @@ package com.hotelsystem.booking_service.controller;
 
 import com.hotelsystem.booking_service.application.CreateBookingCommand;
 import com.hotelsystem.booking_service.application.CreateBookingCommandHandler;
+import com.hotelsystem.booking_service.application.CreateGroupBookingCommand;
+import com.hotelsystem.booking_service.application.CreateGroupBookingCommandHandler;
 import com.hotelsystem.booking_service.application.DeleteBookingCommandHandler;
+import com.hotelsystem.booking_service.application.ExportBookingsQuery;
+import com.hotelsystem.booking_service.application.ExportBookingsQueryHandler;
+import com.hotelsystem.booking_service.application.ExportFormat;
 import com.hotelsystem.booking_service.application.GetBookingQuery;
 import com.hotelsystem.booking_service.application.GetBookingQueryHandler;
 import com.hotelsystem.booking_service.application.GetBookingsQuery;
 import com.hotelsystem.booking_service.application.GetBookingsQueryHandler;
+import com.hotelsystem.booking_service.application.IdempotencyStore;
 import com.hotelsystem.booking_service.application.UpdateBookingCommand;
 import com.hotelsystem.booking_service.application.UpdateBookingCommandHandler;
-import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.application.dto.BookingDTO;
+import com.hotelsystem.booking_service.application.dto.GroupBookingResult;
+import com.hotelsystem.booking_service.model.BookingStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,15 +38,31 @@ import java.util.List;
 public class BookingController {
 
     private final CreateBookingCommandHandler createBookingCommandHandler;
+    private final CreateGroupBookingCommandHandler createGroupBookingCommandHandler;
     private final GetBookingQueryHandler getBookingQueryHandler;
     private final GetBookingsQueryHandler getBookingsQueryHandler;
     private final UpdateBookingCommandHandler updateBookingCommandHandler;
     private final DeleteBookingCommandHandler deleteBookingCommandHandler;
+    private final ExportBookingsQueryHandler exportBookingsQueryHandler;
+    private final IdempotencyStore idempotencyStore;
 
+    // A retry with the same Idempotency-Key gets the first attempt's booking ID instead of a second booking
     @PostMapping
-    public ResponseEntity<Long> createBooking(@RequestBody CreateBookingCommand command) {
-        Long bookingId = createBookingCommandHandler.handle(command);
-        return ResponseEntity.ok(bookingId);
+    public ResponseEntity<Long> createBooking(@RequestBody CreateBookingCommand command,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String key) {
+        IdempotencyStore.Result<Long> result = idempotencyStore.execute("create-booking", key, command, Long.class,
+                () -> createBookingCommandHandler.handle(command));
+        return ResponseEntity.ok().header("Idempotent-Replayed", String.valueOf(result.replayed())).body(result.value());
+    }
+
+    // A block of rooms in one round trip; the result reports every line's booking ID or error
+    @PostMapping("/group")
+    public ResponseEntity<GroupBookingResult> createGroupBooking(
+            @RequestBody CreateGroupBookingCommand command,
+            @RequestHeader(value = "Idempotency-Key", required = false) String key) {
+        IdempotencyStore.Result<GroupBookingResult> result = idempotencyStore.execute("create-group-booking", key,
+                command, GroupBookingResult.class, () -> createGroupBookingCommandHandler.handle(command));
+        return ResponseEntity.ok().header("Idempotent-Replayed", String.valueOf(result.replayed())).body(result.value());
     }
 
     @PutMapping("/{id}")
@@ -46,17 +78,54 @@ public class BookingController {
         return ResponseEntity.ok().build();
     }
 
+    // With guestId: one page of that guest's bookings, newest stay first; X-Next-Page is set when more follow
     @GetMapping
-    public ResponseEntity<List<Booking>> getBookings(@RequestParam(required = false) String guestId) {
+    public ResponseEntity<List<BookingDTO>> getBookings(
+            @RequestParam(required = false) String guestId,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         GetBookingsQuery query = new GetBookingsQuery();
         query.setGuestId(guestId);
-        List<Booking> bookings = getBookingsQueryHandler.handle(query);
-        return ResponseEntity.ok(bookings);
+        if (guestId == null || guestId.isEmpty()) {
+            return ResponseEntity.ok(getBookingsQueryHandler.handle(query));
+        }
+        query.setStatus(status);
+        query.setFrom(from);
+        query.setTo(to);
+        query.setPage(page);
+        query.setSize(size);
+        Slice<BookingDTO> bookings = getBookingsQueryHandler.findByGuest(query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext()) {
+            response.header("X-Next-Page", String.valueOf(bookings.getNumber() + 1));
+        }
+        return response.body(bookings.getContent());
+    }
+
+    // Full history for accounting, written row by row from a database cursor as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        // Checked before the response starts streaming, so a bad range is still a 400
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must be after 'from'.");
+        }
+        ExportBookingsQuery query = new ExportBookingsQuery(from, to, ExportFormat.parse(format));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(query.getFormat().contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=bookings." + query.getFormat().extension())
+                .body(out -> exportBookingsQueryHandler.handle(query, out));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getBooking(@PathVariable Long id) {
-        Booking booking = getBookingQueryHandler.handle(new GetBookingQuery(id));
+    public ResponseEntity<BookingDTO> getBooking(@PathVariable Long id) {
+        BookingDTO booking = getBookingQueryHandler.handle(new GetBookingQuery(id));
         return ResponseEntity.ok(booking);
     }
 }
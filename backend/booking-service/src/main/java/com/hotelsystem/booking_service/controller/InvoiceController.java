@@ -2,12 +2,26 @@ package com.hotelsystem.booking_service.controller;
 
 import com.hotelsystem.booking_service.application.CreateInvoiceCommand;
 import com.hotelsystem.booking_service.application.CreateInvoiceCommandHandler;
-import com.hotelsystem.booking_service.model.Invoice;
-import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import com.hotelsystem.booking_service.application.ExportFormat;
+import com.hotelsystem.booking_service.application.ExportInvoicesQuery;
+import com.hotelsystem.booking_service.application.ExportInvoicesQueryHandler;
+import com.hotelsystem.booking_service.application.GetInvoicesQueryHandler;
+import com.hotelsystem.booking_service.application.IdempotencyStore;
+import com.hotelsystem.booking_service.application.RunBillingCommand;
+import com.hotelsystem.booking_service.application.RunBillingCommandHandler;
+import com.hotelsystem.booking_service.application.dto.BillingRunResult;
+import com.hotelsystem.booking_service.application.dto.InvoiceDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,16 +30,45 @@ import java.util.List;
 public class InvoiceController {
 
     private final CreateInvoiceCommandHandler createInvoiceCommandHandler;
-    private final InvoiceRepository invoiceRepository;
+    private final GetInvoicesQueryHandler getInvoicesQueryHandler;
+    private final ExportInvoicesQueryHandler exportInvoicesQueryHandler;
+    private final RunBillingCommandHandler runBillingCommandHandler;
+    private final IdempotencyStore idempotencyStore;
 
+    // Same Idempotency-Key contract as POST /api/bookings
     @PostMapping
-    public ResponseEntity<Long> createInvoice(@RequestBody CreateInvoiceCommand command) {
-        Long invoiceId = createInvoiceCommandHandler.handle(command);
-        return ResponseEntity.ok(invoiceId);
+    public ResponseEntity<Long> createInvoice(@RequestBody CreateInvoiceCommand command,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String key) {
+        IdempotencyStore.Result<Long> result = idempotencyStore.execute("create-invoice", key, command, Long.class,
+                () -> createInvoiceCommandHandler.handle(command));
+        return ResponseEntity.ok().header("Idempotent-Replayed", String.valueOf(result.replayed())).body(result.value());
+    }
+
+    // Invoices every uninvoiced checkout of the day; safe to run again
+    @PostMapping("/billing-runs")
+    public ResponseEntity<BillingRunResult> runBilling(@RequestBody RunBillingCommand command) {
+        return ResponseEntity.ok(runBillingCommandHandler.handle(command));
     }
 
     @GetMapping
-    public ResponseEntity<List<Invoice>> getInvoices() {
-        return ResponseEntity.ok(invoiceRepository.findAll());
+    public ResponseEntity<List<InvoiceDTO>> getInvoices() {
+        return ResponseEntity.ok(getInvoicesQueryHandler.handle());
+    }
+
+    // Streams invoices issued in [from, to) as NDJSON or CSV; see BookingController#exportBookings
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must be after 'from'.");
+        }
+        ExportInvoicesQuery query = new ExportInvoicesQuery(from, to, ExportFormat.parse(format));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(query.getFormat().contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=invoices." + query.getFormat().extension())
+                .body(out -> exportInvoicesQueryHandler.handle(query, out));
     }
 }
@@ -0,0 +1,31 @@
+package com.hotelsystem.booking_service.controller;
+
+import com.hotelsystem.booking_service.application.GetRollupsQuery;
+import com.hotelsystem.booking_service.application.GetRollupsQueryHandler;
+import com.hotelsystem.booking_service.application.dto.RollupReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final GetRollupsQueryHandler getRollupsQueryHandler;
+
+    // Occupancy, ADR and RevPAR per room type for the nights [from, to)
+    @GetMapping("/rollups")
+    public ResponseEntity<RollupReport> getRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String roomType) {
+        return ResponseEntity.ok(getRollupsQueryHandler.handle(new GetRollupsQuery(from, to, roomType)));
+    }
+}
@@ -12,11 +12,19 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "bookings")
+// Overlap checks seek by room and scan only that room's stays in check-in order;
+// a guest's bookings are read newest stay first from the guest index; billing runs pick a day's checkouts
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_room_dates", columnList = "room_id, check_in_date, check_out_date"),
+        @Index(name = "idx_bookings_guest_check_in", columnList = "guest_id, check_in_date"),
+        @Index(name = "idx_bookings_check_out", columnList = "check_out_date")
+})
 public class Booking {
 
+    // Pooled sequence so group bookings are inserted in JDBC batches (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,6 +44,9 @@ public class Booking {
 
     private BigDecimal totalPrice;
 
+    // Room type at booking time, from the quote; rollups file the stay's revenue under it
+    private String roomType;
+
     @OneToOne(mappedBy = "booking", cascade = CascadeType.ALL)
     private Invoice invoice;
 
@@ -0,0 +1,42 @@
+package com.hotelsystem.booking_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Room-nights sold and room revenue of one night for one room type. Kept up to date by
+// OccupancyRollups; the primary key leads with the night, so dashboard ranges are index seeks.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(DailyRollup.Key.class)
+@Table(name = "daily_rollups")
+public class DailyRollup {
+
+    @Id
+    private LocalDate night;
+
+    @Id
+    @Column(length = 32)
+    private String roomType;
+
+    @Column(nullable = false)
+    private long roomNights;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate night;
+        private String roomType;
+    }
+}
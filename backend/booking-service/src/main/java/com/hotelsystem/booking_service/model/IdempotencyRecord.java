@@ -0,0 +1,43 @@
+package com.hotelsystem.booking_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The outcome of a request sent with an Idempotency-Key. A row without a response is a claim:
+// the request is running, and a retry that finds it waits or is told to come back.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    // Operation and client key, e.g. "create-booking:6f1c..."
+    @Id
+    @Column(length = 200)
+    private String id;
+
+    // Hash of the request body; the same key with a different body is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // JSON of the successful result; null while the request is running. A CLOB, as group booking
+    // results for a few hundred rooms run to tens of kilobytes
+    @Lob
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Set in the same transaction as the request's writes; a committed claim is never run again
+    private LocalDateTime committedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
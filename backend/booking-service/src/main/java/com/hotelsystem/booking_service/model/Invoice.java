@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -15,16 +16,28 @@ import java.util.List;
 @Table(name = "invoices")
 public class Invoice {
 
+    // Pooled sequence so billing runs insert invoices in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoices_seq")
+    @SequenceGenerator(name = "invoices_seq", sequenceName = "invoices_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime issueDate;
 
+    // Room total plus service lines, before tax
+    private BigDecimal subtotal;
+
+    private BigDecimal taxRate;
+
+    private BigDecimal taxAmount;
+
+    // What the guest pays: subtotal plus tax
     private BigDecimal amount;
 
+    // One invoice per booking; the unique key is what keeps a re-run billing job from billing twice.
+    // Schema update cannot add it over existing duplicates, so InvoiceUniquenessCheck refuses to start then.
     @OneToOne
-    @JoinColumn(name = "booking_id", referencedColumnName = "id")
+    @JoinColumn(name = "booking_id", referencedColumnName = "id", unique = true)
     private Booking booking;
 
     @OneToMany(cascade = CascadeType.ALL)
@@ -35,7 +48,23 @@ public class Invoice {
     )
     private List<AdditionalService> services;
 
+    // Sets subtotal, tax and amount from the booking's room total, the service lines and taxRate
     public void calculateTotal() {
-        // Logic to sum up service prices + booking total
+        calculateTotal(booking.getTotalPrice());
+    }
+
+    // Same, with the room total already at hand (billing runs hold only a reference to the booking)
+    public void calculateTotal(BigDecimal roomTotal) {
+        BigDecimal total = roomTotal != null ? roomTotal : BigDecimal.ZERO;
+        if (services != null) {
+            for (AdditionalService service : services) {
+                if (service.getPrice() != null) {
+                    total = total.add(service.getPrice());
+                }
+            }
+        }
+        subtotal = total.setScale(2, RoundingMode.HALF_UP);
+        taxAmount = subtotal.multiply(taxRate != null ? taxRate : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+        amount = subtotal.add(taxAmount);
     }
 }
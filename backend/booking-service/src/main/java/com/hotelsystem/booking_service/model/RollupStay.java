@@ -0,0 +1,35 @@
+package com.hotelsystem.booking_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// What daily_rollups currently counts for a booking. A change is applied as "minus this, plus the
+// booking as it is now", which makes replaying the same reservation event a no-op.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "rollup_stays")
+public class RollupStay {
+
+    @Id
+    private Long bookingId;
+
+    @Column(nullable = false, length = 32)
+    private String roomType;
+
+    @Column(nullable = false)
+    private LocalDate checkInDate;
+
+    // End of the counted nights: at least one night after check-in
+    @Column(nullable = false)
+    private LocalDate nightsEnd;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalPrice;
+}
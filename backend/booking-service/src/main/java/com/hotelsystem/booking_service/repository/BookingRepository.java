@@ -1,9 +1,131 @@
 package com.hotelsystem.booking_service.repository;
 
+import com.hotelsystem.booking_service.application.dto.BookingDTO;
+import com.hotelsystem.booking_service.application.dto.BookingExportRow;
 import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    // Any live booking holding a night of [checkIn, checkOut) on the room, other than excludeId.
+    // Stays are stored with the requested check-out, so one with checkOut <= checkIn still holds its
+    // first night: "checkInDate >= :checkIn" catches those, and is implied by the first test otherwise.
+    @Query("select count(b) > 0 from Booking b where b.roomId = :roomId"
+            + " and b.checkInDate < :checkOut and (b.checkOutDate > :checkIn or b.checkInDate >= :checkIn)"
+            + " and (b.status is null or b.status <> com.hotelsystem.booking_service.model.BookingStatus.CANCELLED)"
+            + " and (:excludeId is null or b.id <> :excludeId)")
+    boolean existsOverlapping(@Param("roomId") Long roomId, @Param("checkIn") LocalDate checkIn,
+                              @Param("checkOut") LocalDate checkOut, @Param("excludeId") Long excludeId);
+
+    // Seeks idx_bookings_guest_check_in; flat rows with the invoice joined in, no entities
+    @Query("select new com.hotelsystem.booking_service.application.dto.BookingDTO(b.id, b.guestId, b.roomId,"
+            + " b.checkInDate, b.checkOutDate, b.status, b.totalPrice, b.createdAt, i.id, i.amount)"
+            + " from Booking b left join b.invoice i where b.guestId = :guestId"
+            + " and (:status is null or b.status = :status)"
+            + " and (:from is null or b.checkOutDate > :from)"
+            + " and (:to is null or b.checkInDate < :to)")
+    Slice<BookingDTO> findByGuest(@Param("guestId") String guestId, @Param("status") BookingStatus status,
+                                  @Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    // Reads for the API go through these projections: loading Booking entities costs an extra
+    // select per row for the inverse invoice side, and serializing them walks back into the invoice
+    @Query("select new com.hotelsystem.booking_service.application.dto.BookingDTO(b.id, b.guestId, b.roomId,"
+            + " b.checkInDate, b.checkOutDate, b.status, b.totalPrice, b.createdAt, i.id, i.amount)"
+            + " from Booking b left join b.invoice i order by b.id")
+    List<BookingDTO> findAllViews();
+
+    @Query("select new com.hotelsystem.booking_service.application.dto.BookingDTO(b.id, b.guestId, b.roomId,"
+            + " b.checkInDate, b.checkOutDate, b.status, b.totalPrice, b.createdAt, i.id, i.amount)"
+            + " from Booking b left join b.invoice i where b.id = :id")
+    Optional<BookingDTO> findViewById(@Param("id") Long id);
+
+    // Forward-only cursor of flat rows in ID order; no entities, so the persistence context stays empty
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.hotelsystem.booking_service.application.dto.BookingExportRow(b.id, b.guestId, b.roomId,"
+            + " b.checkInDate, b.checkOutDate, b.status, b.totalPrice, b.createdAt) from Booking b"
+            + " where (:from is null or b.createdAt >= :from) and (:to is null or b.createdAt < :to) order by b.id")
+    Stream<BookingExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // {roomId, checkInDate, checkOutDate} of every live stay on the rooms touching [from, to), zero-night ones
+    // included as in existsOverlapping
+    @Query("select b.roomId, b.checkInDate, b.checkOutDate from Booking b where b.roomId in :roomIds"
+            + " and b.checkInDate < :to and (b.checkOutDate > :from or b.checkInDate >= :from)"
+            + " and (b.status is null or b.status <> com.hotelsystem.booking_service.model.BookingStatus.CANCELLED)")
+    List<Object[]> findLiveStays(@Param("roomIds") Collection<Long> roomIds, @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    // {id, totalPrice} of live bookings checking out on the day that have no invoice yet, in ID order
+    @Query("select b.id, b.totalPrice from Booking b where b.checkOutDate = :day"
+            + " and (b.status is null or b.status <> com.hotelsystem.booking_service.model.BookingStatus.CANCELLED)"
+            + " and not exists (select i.id from Invoice i where i.booking = b) order by b.id")
+    List<Object[]> findUninvoicedCheckouts(@Param("day") LocalDate day);
+
+    @Query("select count(b) from Booking b where b.checkOutDate = :day"
+            + " and (b.status is null or b.status <> com.hotelsystem.booking_service.model.BookingStatus.CANCELLED)")
+    long countLiveCheckouts(@Param("day") LocalDate day);
+
+    // {id, roomType, checkInDate, checkOutDate, status, totalPrice} of the bookings, for the rollups
+    @Query("select b.id, b.roomType, b.checkInDate, b.checkOutDate, b.status, b.totalPrice from Booking b"
+            + " where b.id in :ids")
+    List<Object[]> findRollupStates(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id from Booking b where b.id > :after order by b.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select b.id from Booking b where b.status = :status and b.id > :after order by b.id")
+    List<Long> findIdsByStatusAfter(@Param("status") BookingStatus status, @Param("after") Long after,
+                                    Pageable pageable);
+
+    // {id, roomId, checkInDate, checkOutDate, totalPrice} of the bookings that are still pending
+    @Query("select b.id, b.roomId, b.checkInDate, b.checkOutDate, b.totalPrice from Booking b where b.id in :ids"
+            + " and b.status = com.hotelsystem.booking_service.model.BookingStatus.PENDING")
+    List<Object[]> findPendingStays(@Param("ids") Collection<Long> ids);
+
+    // {id, roomId, checkInDate, checkOutDate, status} of every live stay on the rooms touching [from, to), zero-night
+    // ones included as in existsOverlapping
+    @Query("select b.id, b.roomId, b.checkInDate, b.checkOutDate, b.status from Booking b where b.roomId in :roomIds"
+            + " and b.checkInDate < :to and (b.checkOutDate > :from or b.checkInDate >= :from)"
+            + " and (b.status is null or b.status <> com.hotelsystem.booking_service.model.BookingStatus.CANCELLED)")
+    List<Object[]> findLiveStaysWithIds(@Param("roomIds") Collection<Long> roomIds, @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    // Pending bookings among ids, row-locked in ID order so concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in :ids"
+            + " and b.status = com.hotelsystem.booking_service.model.BookingStatus.PENDING order by b.id")
+    List<Booking> findPendingForUpdate(@Param("ids") Collection<Long> ids);
+
+    // One statement for the whole batch; only rows still in the from status change
+    @Modifying
+    @Query("update Booking b set b.status = :to where b.id in :ids and b.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") BookingStatus from,
+                     @Param("to") BookingStatus to);
+
+    // Row lock held until commit: writers of one booking take turns, so its outbox events follow commit order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,20 @@
+package com.hotelsystem.booking_service.repository;
+
+import com.hotelsystem.booking_service.model.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, DailyRollup.Key> {
+
+    // Nights in [from, to), optionally one room type; a range seek on the primary key
+    @Query("select r from DailyRollup r where r.night >= :from and r.night < :to"
+            + " and (:roomType is null or r.roomType = :roomType) order by r.night, r.roomType")
+    List<DailyRollup> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                @Param("roomType") String roomType);
+}
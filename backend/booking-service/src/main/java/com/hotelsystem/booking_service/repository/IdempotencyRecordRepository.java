@@ -0,0 +1,41 @@
+package com.hotelsystem.booking_service.repository;
+
+import com.hotelsystem.booking_service.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain insert, so a concurrent claim of the same key fails on the primary key instead of merging
+    @Modifying
+    @Query(value = "insert into idempotency_records (id, fingerprint, created_at, expires_at)"
+            + " values (:id, :fingerprint, :createdAt, :expiresAt)", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("fingerprint") String fingerprint,
+              @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Runs in the request's own transaction; zero rows means the claim was taken over
+    @Modifying
+    @Query("update IdempotencyRecord r set r.committedAt = :committedAt"
+            + " where r.id = :id and r.createdAt = :claimedAt and r.committedAt is null")
+    int markCommitted(@Param("id") String id, @Param("claimedAt") LocalDateTime claimedAt,
+                      @Param("committedAt") LocalDateTime committedAt);
+
+    // Drops a claim whose request never committed
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.createdAt = :claimedAt and r.committedAt is null")
+    int release(@Param("id") String id, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.id = :id")
+    int complete(@Param("id") String id, @Param("response") String response);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,12 +1,46 @@
 package com.hotelsystem.booking_service.repository;
 
+import com.hotelsystem.booking_service.application.dto.InvoiceDTO;
+import com.hotelsystem.booking_service.application.dto.InvoiceExportRow;
+import com.hotelsystem.booking_service.application.dto.ServiceLineDTO;
 import com.hotelsystem.booking_service.model.Invoice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     List<Invoice> findByBookingId(Long bookingId);
+
+    @Query("select i.booking.id from Invoice i where i.booking.id in :bookingIds")
+    List<Long> findInvoicedBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Forward-only cursor of flat rows in ID order, like BookingRepository.streamForExport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.hotelsystem.booking_service.application.dto.InvoiceExportRow(i.id, b.id, b.guestId,"
+            + " i.issueDate, i.amount) from Invoice i left join i.booking b"
+            + " where (:from is null or i.issueDate >= :from) and (:to is null or i.issueDate < :to) order by i.id")
+    Stream<InvoiceExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Flat invoice rows with the booking joined in; services come from findAllServiceLines
+    @Query("select new com.hotelsystem.booking_service.application.dto.InvoiceDTO(i.id, b.id, b.guestId,"
+            + " i.issueDate, i.subtotal, i.taxRate, i.taxAmount, i.amount) from Invoice i left join i.booking b"
+            + " order by i.id")
+    List<InvoiceDTO> findAllViews();
+
+    @Query("select new com.hotelsystem.booking_service.application.dto.ServiceLineDTO(i.id, s.name, s.price,"
+            + " s.description) from Invoice i join i.services s order by i.id, s.id")
+    List<ServiceLineDTO> findAllServiceLines();
 }
@@ -0,0 +1,17 @@
+package com.hotelsystem.booking_service.repository;
+
+import com.hotelsystem.booking_service.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest first, from idx_outbox_events_subscriber
+    List<OutboxEvent> findBySubscriberOrderByIdAsc(String subscriber, Pageable pageable);
+
+    long countBySubscriber(String subscriber);
+}
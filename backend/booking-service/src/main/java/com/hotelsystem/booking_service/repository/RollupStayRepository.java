@@ -0,0 +1,9 @@
+package com.hotelsystem.booking_service.repository;
+
+import com.hotelsystem.booking_service.model.RollupStay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupStayRepository extends JpaRepository<RollupStay, Long> {
+}
@@ -0,0 +1,160 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.model.Invoice;
+import com.hotelsystem.booking_service.model.OutboxEvent;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import com.hotelsystem.booking_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:booking-confirmation;DB_CLOSE_DELAY=-1",
+		"booking.outbox.poll-interval-ms=3600000",
+		"booking.confirmation.sweep-interval-ms=3600000"
+})
+class BookingConfirmationPipelineTests {
+
+	private static final LocalDate CHECK_IN = LocalDate.of(2035, 9, 10);
+
+	@Autowired
+	private CreateBookingCommandHandler createHandler;
+
+	@Autowired
+	private CreateInvoiceCommandHandler createInvoiceCommandHandler;
+
+	@Autowired
+	private BookingConfirmationPipeline pipeline;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockBean
+	private RoomQuoteCache roomQuoteCache;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@Test
+	void newAndRecoveredBookingsAreCheckedInvoicedAndConfirmed() throws InterruptedException {
+		when(roomQuoteCache.quote(any(), any(), any())).thenReturn(quote(6_000L, "200.00"));
+		// Room 6003 has been repriced since it was booked; room-service has no quote for 6004
+		when(roomQuoteCache.quotes(any(), any(), any())).thenAnswer(invocation -> {
+			Map<Long, RoomQuoteDTO> quotes = new HashMap<>();
+			for (Long roomId : invocation.<Collection<Long>>getArgument(0)) {
+				if (roomId != 6_004L) {
+					quotes.put(roomId, quote(roomId, roomId == 6_003L ? "260.00" : "200.00"));
+				}
+			}
+			return quotes;
+		});
+
+		Long confirmed = create(6_001L);
+		Long repriced = create(6_003L);
+		Long unquoted = create(6_004L);
+		// Written before a restart, so never queued: the sweep has to find them
+		Long recovered = save(6_006L, BookingStatus.PENDING).getId();
+		Booking rival = save(6_005L, BookingStatus.CONFIRMED);
+		Long doubleBooked = save(6_005L, BookingStatus.PENDING).getId();
+		pipeline.sweep();
+		awaitIdle();
+
+		assertEquals(BookingStatus.CONFIRMED, status(confirmed));
+		assertEquals(BookingStatus.CONFIRMED, status(recovered));
+		assertEquals(BookingStatus.CONFIRMED, status(repriced));
+		assertEquals(BookingStatus.PENDING, status(unquoted));
+		assertEquals(BookingStatus.CANCELLED, status(doubleBooked));
+		assertEquals(BookingStatus.CONFIRMED, status(rival.getId()));
+
+		// Invoices only for the confirmed ones: room 200.00 plus 10% tax
+		Invoice invoice = invoiceRepository.findByBookingId(confirmed).get(0);
+		assertEquals(new BigDecimal("220.00"), invoice.getAmount());
+		assertEquals(1, invoiceRepository.findByBookingId(recovered).size());
+		// Repriced since booking: invoiced at the price the guest booked at
+		assertEquals(new BigDecimal("220.00"), invoiceRepository.findByBookingId(repriced).get(0).getAmount());
+		assertEquals(1.0, meterRegistry.get("booking.confirmation.bookings").tag("result", "price-changed")
+				.counter().count());
+		assertTrue(invoiceRepository.findByBookingId(doubleBooked).isEmpty());
+
+		// The desk adds services to the pre-created invoice instead of issuing another
+		Long deskInvoiceId = createInvoiceCommandHandler.handle(new CreateInvoiceCommand(confirmed,
+				List.of(new CreateInvoiceCommand.ServiceLine("Minibar", new BigDecimal("20.00"), null))));
+		assertEquals(invoice.getId(), deskInvoiceId);
+		assertEquals(new BigDecimal("242.00"), invoiceRepository.findById(deskInvoiceId).orElseThrow().getAmount());
+
+		List<OutboxEvent> events = outboxEventRepository.findAll();
+		assertTrue(hasEvent(events, confirmed, "ReservationConfirmedEvent"));
+		assertTrue(hasEvent(events, recovered, "ReservationConfirmedEvent"));
+		assertTrue(hasEvent(events, doubleBooked, "ReservationCancelledEvent"));
+		assertTrue(hasEvent(events, repriced, "ReservationConfirmedEvent"));
+		assertFalse(hasEvent(events, repriced, "ReservationCancelledEvent"));
+	}
+
+	private Long create(Long roomId) {
+		return createHandler.handle(new CreateBookingCommand("guest-" + roomId, roomId, CHECK_IN, CHECK_IN.plusDays(2)));
+	}
+
+	private Booking save(Long roomId, BookingStatus status) {
+		Booking booking = new Booking();
+		booking.setGuestId("guest-" + roomId);
+		booking.setRoomId(roomId);
+		booking.setCheckInDate(CHECK_IN);
+		booking.setCheckOutDate(CHECK_IN.plusDays(2));
+		booking.setStatus(status);
+		booking.setTotalPrice(new BigDecimal("200.00"));
+		return bookingRepository.save(booking);
+	}
+
+	private BookingStatus status(Long bookingId) {
+		return bookingRepository.findById(bookingId).orElseThrow().getStatus();
+	}
+
+	private void awaitIdle() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!pipeline.idle() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(pipeline.idle(), "confirmation queue did not drain");
+	}
+
+	private static boolean hasEvent(List<OutboxEvent> events, Long bookingId, String type) {
+		return events.stream().anyMatch(event -> event.getBookingId().equals(bookingId) && event.getType().equals(type));
+	}
+
+	private static RoomQuoteDTO quote(Long roomId, String price) {
+		RoomQuoteDTO quote = new RoomQuoteDTO();
+		quote.setRoomId(roomId);
+		quote.setTotalPrice(new BigDecimal(price));
+		quote.setRoomType("STANDARD");
+		return quote;
+	}
+}
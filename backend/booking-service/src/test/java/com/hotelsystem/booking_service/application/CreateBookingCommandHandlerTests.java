@@ -0,0 +1,114 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-overlap;DB_CLOSE_DELAY=-1")
+class CreateBookingCommandHandlerTests {
+
+	private static final LocalDate FIRST_NIGHT = LocalDate.of(2031, 1, 1);
+
+	@Autowired
+	private CreateBookingCommandHandler handler;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@MockBean
+	private RoomQuoteCache roomQuoteCache;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@Test
+	void concurrentRequestsNeverDoubleBookARoomNight() throws Exception {
+		RoomQuoteDTO quote = new RoomQuoteDTO();
+		quote.setTotalPrice(new BigDecimal("100.00"));
+		when(roomQuoteCache.quote(any(), any(), any())).thenReturn(quote);
+
+		int attempts = 3_000;
+		ExecutorService clients = Executors.newFixedThreadPool(32);
+		Random random = new Random(42);
+		List<Future<Boolean>> results = new ArrayList<>(attempts);
+		for (int i = 0; i < attempts; i++) {
+			// Eight rooms, two months, stays of one to five nights: heavy contention on every room
+			long roomId = 9_001 + random.nextInt(8);
+			LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(60));
+			LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+			results.add(clients.submit(() -> {
+				try {
+					handler.handle(new CreateBookingCommand("guest-" + roomId, roomId, checkIn, checkOut));
+					return true;
+				} catch (RuntimeException e) {
+					assertTrue(e.getMessage().contains("already booked"), e.getMessage());
+					return false;
+				}
+			}));
+		}
+		int created = 0;
+		for (Future<Boolean> result : results) {
+			created += result.get() ? 1 : 0;
+		}
+		clients.shutdown();
+
+		Map<Long, List<Booking>> byRoom = bookingRepository.findAll().stream()
+				.filter(booking -> booking.getRoomId() > 9_000)
+				.collect(Collectors.groupingBy(Booking::getRoomId));
+		assertEquals(created, byRoom.values().stream().mapToInt(List::size).sum());
+		for (List<Booking> stays : byRoom.values()) {
+			stays.sort(Comparator.comparing(Booking::getCheckInDate));
+			for (int i = 1; i < stays.size(); i++) {
+				assertFalse(stays.get(i).getCheckInDate().isBefore(stays.get(i - 1).getCheckOutDate()),
+						"Room " + stays.get(i).getRoomId() + " double-booked at " + stays.get(i).getCheckInDate());
+			}
+		}
+		assertTrue(created > 0 && created < attempts);
+	}
+
+	@Test
+	void zeroNightStayHoldsItsFirstNight() {
+		RoomQuoteDTO quote = new RoomQuoteDTO();
+		quote.setTotalPrice(new BigDecimal("100.00"));
+		when(roomQuoteCache.quote(any(), any(), any())).thenReturn(quote);
+		LocalDate night = LocalDate.of(2031, 6, 10);
+
+		// Stored as requested, check-out on the check-in day, and charged for one night
+		handler.handle(new CreateBookingCommand("guest-zero", 8_001L, night, night));
+
+		RuntimeException overlap = assertThrows(RuntimeException.class, () ->
+				handler.handle(new CreateBookingCommand("guest-other", 8_001L, night, night.plusDays(1))));
+		assertTrue(overlap.getMessage().contains("already booked"), overlap.getMessage());
+		assertThrows(RuntimeException.class, () ->
+				handler.handle(new CreateBookingCommand("guest-other", 8_001L, night.minusDays(2), night.plusDays(2))));
+		assertThrows(RuntimeException.class, () ->
+				handler.handle(new CreateBookingCommand("guest-other", 8_001L, night, night)));
+		// The nights either side stay free
+		handler.handle(new CreateBookingCommand("guest-other", 8_001L, night.minusDays(1), night));
+		handler.handle(new CreateBookingCommand("guest-other", 8_001L, night.plusDays(1), night.plusDays(2)));
+	}
+}
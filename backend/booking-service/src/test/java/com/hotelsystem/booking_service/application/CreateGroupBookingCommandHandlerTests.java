@@ -0,0 +1,93 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.GroupBookingResult;
+import com.hotelsystem.booking_service.application.dto.RoomPricingDTO;
+import com.hotelsystem.booking_service.application.dto.RoomPricingRequestDTO;
+import com.hotelsystem.booking_service.application.dto.RoomRateDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:group-bookings;DB_CLOSE_DELAY=-1")
+class CreateGroupBookingCommandHandlerTests {
+
+	private static final LocalDate CHECK_IN = LocalDate.of(2032, 5, 1);
+
+	@Autowired
+	private CreateGroupBookingCommandHandler handler;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@BeforeEach
+	void quoteEveryKnownRoom() {
+		// room-service knows rooms up to 6999; its batch endpoint leaves unknown rooms out
+		when(roomServiceClient.post(eq("/api/rooms/pricing"), any(), eq(RoomPricingDTO[].class))).thenAnswer(call -> {
+			RoomPricingRequestDTO request = call.getArgument(1);
+			return request.getRoomIds().stream().filter(roomId -> roomId < 7_000).map(roomId -> {
+				RoomPricingDTO pricing = new RoomPricingDTO();
+				pricing.setRoomId(roomId);
+				pricing.setRoomType("DELUXE");
+				pricing.setPricePerNight(new BigDecimal("150.00"));
+				return pricing;
+			}).toArray(RoomPricingDTO[]::new);
+		});
+		when(roomServiceClient.get("/api/rooms/rates", RoomRateDTO[].class)).thenReturn(new RoomRateDTO[0]);
+	}
+
+	@Test
+	void twoHundredRoomBlockIsPricedInOneCallAndBookedTogether() {
+		GroupBookingResult result = handler.handle(group(5_001, 200, CHECK_IN, true));
+
+		assertEquals(200, result.getCreated());
+		result.getLines().forEach(line -> assertNotNull(line.getBookingId()));
+		verify(roomServiceClient, times(1)).post(eq("/api/rooms/pricing"), any(), eq(RoomPricingDTO[].class));
+	}
+
+	@Test
+	void oneConflictRejectsAnAllOrNothingBlockButNotAPartialOne() {
+		handler.handle(group(6_010, 1, CHECK_IN.plusDays(30), true));
+
+		CreateGroupBookingCommand block = group(6_001, 20, CHECK_IN.plusDays(31), true);
+		block.getLines().add(new CreateGroupBookingCommand.Line(7_500L, CHECK_IN.plusDays(31), CHECK_IN.plusDays(33)));
+		GroupBookingResult rejected = handler.handle(block);
+		assertEquals(0, rejected.getCreated());
+		assertTrue(rejected.getLines().get(9).getError().contains("already booked"));
+		assertTrue(rejected.getLines().get(20).getError().contains("not found"));
+		assertTrue(rejected.getLines().get(0).getError().startsWith("Not booked"));
+
+		block.setAllOrNothing(false);
+		// The same room twice in one request: the later line loses
+		block.getLines().add(new CreateGroupBookingCommand.Line(6_001L, CHECK_IN.plusDays(32), CHECK_IN.plusDays(34)));
+		GroupBookingResult partial = handler.handle(block);
+		assertEquals(19, partial.getCreated());
+		assertNull(partial.getLines().get(0).getError());
+		assertTrue(partial.getLines().get(21).getError().startsWith("Overlaps line 1"));
+	}
+
+	private static CreateGroupBookingCommand group(long firstRoomId, int rooms, LocalDate checkIn, boolean allOrNothing) {
+		List<CreateGroupBookingCommand.Line> lines = new ArrayList<>();
+		for (long roomId = firstRoomId; roomId < firstRoomId + rooms; roomId++) {
+			lines.add(new CreateGroupBookingCommand.Line(roomId, checkIn, checkIn.plusDays(2)));
+		}
+		return new CreateGroupBookingCommand("wedding-party", lines, allOrNothing);
+	}
+}
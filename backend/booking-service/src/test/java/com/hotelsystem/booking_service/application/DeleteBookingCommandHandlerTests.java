@@ -0,0 +1,65 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-deletes;DB_CLOSE_DELAY=-1")
+class DeleteBookingCommandHandlerTests {
+
+	@Autowired
+	private DeleteBookingCommandHandler handler;
+
+	@Autowired
+	private CreateInvoiceCommandHandler createInvoiceCommandHandler;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private RoomQuoteCache roomQuoteCache;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@Test
+	void invoicedBookingIsDeletedWithItsInvoice() {
+		Booking booking = new Booking();
+		booking.setGuestId("guest-d");
+		booking.setRoomId(4_101L);
+		booking.setCheckInDate(LocalDate.of(2035, 5, 1));
+		booking.setCheckOutDate(LocalDate.of(2035, 5, 3));
+		booking.setStatus(BookingStatus.CONFIRMED);
+		booking.setTotalPrice(new BigDecimal("250.00"));
+		Long bookingId = bookingRepository.save(booking).getId();
+		Long invoiceId = createInvoiceCommandHandler.handle(new CreateInvoiceCommand(bookingId,
+				List.of(new CreateInvoiceCommand.ServiceLine("Minibar", new BigDecimal("20.00"), null))));
+
+		handler.handle(bookingId);
+
+		assertFalse(bookingRepository.existsById(bookingId));
+		assertFalse(invoiceRepository.existsById(invoiceId));
+		assertEquals(0, jdbcTemplate.queryForObject("select count(*) from invoice_services where invoice_id = ?",
+				Integer.class, invoiceId));
+	}
+}
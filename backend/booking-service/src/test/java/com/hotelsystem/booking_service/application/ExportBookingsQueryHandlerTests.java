@@ -0,0 +1,68 @@
+package com.hotelsystem.booking_service.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-export;DB_CLOSE_DELAY=-1")
+class ExportBookingsQueryHandlerTests {
+
+	@Autowired
+	private ExportBookingsQueryHandler handler;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void exportsEveryRowAsNdjsonOrCsvWithinTheDateRange() throws Exception {
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < 3_000; i++) {
+			Booking booking = new Booking();
+			booking.setGuestId(i == 0 ? "Doe, \"Jane\"" : "guest-" + i);
+			booking.setRoomId((long) (i % 40));
+			booking.setCheckInDate(LocalDate.of(2030, 1, 1).plusDays(i % 300));
+			booking.setCheckOutDate(LocalDate.of(2030, 1, 3).plusDays(i % 300));
+			booking.setStatus(BookingStatus.CONFIRMED);
+			booking.setTotalPrice(new BigDecimal("180.00"));
+			bookings.add(booking);
+		}
+		bookingRepository.saveAll(bookings);
+		LocalDate today = LocalDate.now();
+
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		assertEquals(3_000, handler.handle(new ExportBookingsQuery(today, today.plusDays(1), ExportFormat.NDJSON), ndjson));
+		String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(3_000, lines.length);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertEquals("Doe, \"Jane\"", first.get("guestId").asText());
+		assertEquals("2030-01-01", first.get("checkInDate").asText());
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		handler.handle(new ExportBookingsQuery(null, null, ExportFormat.CSV), csv);
+		String[] rows = csv.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(3_001, rows.length);
+		assertEquals("id,guestId,roomId,checkInDate,checkOutDate,status,totalPrice,createdAt", rows[0]);
+		assertEquals("\"Doe, \"\"Jane\"\"\",0,2030-01-01,2030-01-03,CONFIRMED,180.00",
+				rows[1].substring(rows[1].indexOf(',') + 1, rows[1].lastIndexOf(',')));
+
+		ByteArrayOutputStream none = new ByteArrayOutputStream();
+		assertEquals(0, handler.handle(new ExportBookingsQuery(today.plusDays(1), null, ExportFormat.NDJSON), none));
+	}
+}
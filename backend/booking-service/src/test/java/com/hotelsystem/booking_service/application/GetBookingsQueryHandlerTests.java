@@ -0,0 +1,81 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.BookingDTO;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:guest-bookings;DB_CLOSE_DELAY=-1")
+class GetBookingsQueryHandlerTests {
+
+	private static final LocalDate JAN_1 = LocalDate.of(2030, 1, 1);
+
+	@Autowired
+	private GetBookingsQueryHandler handler;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void guestBookingsAreFilteredAndPagedFromTheGuestIndex() {
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			// guest-0 has one stay every ten days; everyone else's history is noise
+			String guest = i % 10 == 0 ? "guest-0" : "guest-" + i;
+			LocalDate checkIn = JAN_1.plusDays(i);
+			bookings.add(booking(guest, checkIn, i % 20 == 0 ? BookingStatus.CANCELLED : BookingStatus.CONFIRMED));
+		}
+		bookingRepository.saveAll(bookings);
+
+		GetBookingsQuery query = new GetBookingsQuery();
+		query.setGuestId("guest-0");
+		query.setStatus(BookingStatus.CONFIRMED);
+		query.setFrom(JAN_1.plusDays(100));
+		query.setTo(JAN_1.plusDays(300));
+		query.setSize(5);
+
+		Slice<BookingDTO> first = handler.findByGuest(query);
+		assertEquals(5, first.getNumberOfElements());
+		assertTrue(first.hasNext());
+		// Newest stay first: check-ins on days 290, 270, 250, ... (days 280, 260, ... are cancelled)
+		assertEquals(JAN_1.plusDays(290), first.getContent().get(0).getCheckInDate());
+
+		query.setPage(1);
+		Slice<BookingDTO> second = handler.findByGuest(query);
+		assertEquals(5, second.getNumberOfElements());
+		assertFalse(second.hasNext());
+		assertEquals(JAN_1.plusDays(110), second.getContent().get(4).getCheckInDate());
+
+		String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM bookings WHERE guest_id = 'guest-0'"
+				+ " ORDER BY check_in_date DESC", String.class);
+		assertTrue(plan.toUpperCase().contains("IDX_BOOKINGS_GUEST_CHECK_IN"), plan);
+	}
+
+	private static Booking booking(String guestId, LocalDate checkIn, BookingStatus status) {
+		Booking booking = new Booking();
+		booking.setGuestId(guestId);
+		booking.setRoomId(1L);
+		booking.setCheckInDate(checkIn);
+		booking.setCheckOutDate(checkIn.plusDays(2));
+		booking.setStatus(status);
+		booking.setTotalPrice(new BigDecimal("200.00"));
+		return booking;
+	}
+}
@@ -0,0 +1,98 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.RollupReport;
+import com.hotelsystem.booking_service.application.dto.RoomFacetsDTO;
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.application.dto.RoomTypeRollup;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:booking-rollups;DB_CLOSE_DELAY=-1",
+		"booking.outbox.poll-interval-ms=3600000",
+		"booking.confirmation.enabled=false"
+})
+class OccupancyRollupsTests {
+
+	private static final LocalDate MAY_1 = LocalDate.of(2036, 5, 1);
+
+	@Autowired
+	private CreateBookingCommandHandler createHandler;
+
+	@Autowired
+	private UpdateBookingCommandHandler updateHandler;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private OccupancyRollups rollups;
+
+	@Autowired
+	private GetRollupsQueryHandler queryHandler;
+
+	@MockBean
+	private RoomQuoteCache roomQuoteCache;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@Test
+	void staysAreRolledUpPerNightAndFollowChanges() {
+		RoomQuoteDTO quote = new RoomQuoteDTO();
+		quote.setTotalPrice(new BigDecimal("300.01"));
+		quote.setRoomType("SUITE");
+		when(roomQuoteCache.quote(any(), any(), any())).thenReturn(quote);
+		RoomFacetsDTO facets = new RoomFacetsDTO();
+		facets.setTypes(Map.of("SUITE", 10, "STANDARD", 20));
+		when(roomServiceClient.get(eq("/api/rooms/facets"), eq(RoomFacetsDTO.class))).thenReturn(facets);
+
+		Long moved = createHandler.handle(new CreateBookingCommand("guest-r", 8_001L, MAY_1, MAY_1.plusDays(3)));
+		Long cancelled = createHandler.handle(new CreateBookingCommand("guest-r", 8_002L, MAY_1, MAY_1.plusDays(1)));
+		relay.relay();
+
+		RollupReport report = queryHandler.handle(new GetRollupsQuery(MAY_1, MAY_1.plusDays(10), null));
+		// 300.01 over three nights puts the leftover cent on the first; the one-night stay adds 300.01
+		RoomTypeRollup first = report.getNights().get(0);
+		assertEquals(2, first.getRoomNightsSold());
+		assertEquals(new BigDecimal("400.02"), first.getRevenue());
+		assertEquals(new BigDecimal("0.2000"), first.getOccupancy());
+		RoomTypeRollup suite = total(report, "SUITE");
+		assertEquals(4, suite.getRoomNightsSold());
+		assertEquals(new BigDecimal("600.02"), suite.getRevenue());
+		assertEquals(new BigDecimal("150.01"), suite.getAdr());
+		assertEquals(new BigDecimal("6.00"), suite.getRevpar());
+		assertNull(total(report, "STANDARD").getAdr());
+
+		updateHandler.handle(new UpdateBookingCommand(moved, null, MAY_1.plusDays(5), MAY_1.plusDays(7), null));
+		updateHandler.handle(new UpdateBookingCommand(cancelled, null, null, null, BookingStatus.CANCELLED));
+		relay.relay();
+		// Replaying the same bookings changes nothing
+		rollups.apply(List.of(moved, cancelled));
+
+		report = queryHandler.handle(new GetRollupsQuery(MAY_1, MAY_1.plusDays(10), "SUITE"));
+		assertEquals(List.of(MAY_1.plusDays(5), MAY_1.plusDays(6)),
+				report.getNights().stream().map(RoomTypeRollup::getNight).toList());
+		assertEquals(2, total(report, "SUITE").getRoomNightsSold());
+		assertEquals(new BigDecimal("300.01"), total(report, "SUITE").getRevenue());
+	}
+
+	private static RoomTypeRollup total(RollupReport report, String type) {
+		return report.getTotals().stream().filter(total -> total.getRoomType().equals(type)).findFirst().orElseThrow();
+	}
+}
@@ -0,0 +1,119 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.ReservationEventMessage;
+import com.hotelsystem.booking_service.application.dto.RoomOccupancyDTO;
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:booking-outbox;DB_CLOSE_DELAY=-1",
+		"booking.outbox.poll-interval-ms=3600000",
+		"booking.outbox.batch-size=2",
+		"booking.confirmation.enabled=false"
+})
+class OutboxRelayTests {
+
+	@Autowired
+	private CreateBookingCommandHandler createHandler;
+
+	@Autowired
+	private UpdateBookingCommandHandler updateHandler;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private RecordingSubscriber recorder;
+
+	@MockBean
+	private RoomQuoteCache roomQuoteCache;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@Test
+	void committedChangesAreDeliveredInOrderAtLeastOnce() {
+		RoomQuoteDTO quote = new RoomQuoteDTO();
+		quote.setTotalPrice(new BigDecimal("120.00"));
+		when(roomQuoteCache.quote(any(), any(), any())).thenReturn(quote);
+
+		LocalDate checkIn = LocalDate.of(2033, 3, 1);
+		Long bookingId = createHandler.handle(new CreateBookingCommand("guest-1", 4_001L, checkIn, checkIn.plusDays(2)));
+		// A rejected booking rolls back, and its event with it
+		assertThrows(RuntimeException.class, () -> createHandler.handle(
+				new CreateBookingCommand("guest-2", 4_001L, checkIn, checkIn.plusDays(1))));
+		updateHandler.handle(new UpdateBookingCommand(bookingId, null, null, null, BookingStatus.CONFIRMED));
+		updateHandler.handle(new UpdateBookingCommand(bookingId, null, null, null, BookingStatus.CANCELLED));
+
+		recorder.failNext = true;
+		relay.relay();
+		assertEquals(3, outboxEventRepository.countBySubscriber(recorder.name()));
+
+		relay.relay();
+		List<String> types = recorder.received.stream().map(ReservationEventMessage::getType).toList();
+		assertEquals(List.of("ReservationCreatedEvent", "ReservationConfirmedEvent", "ReservationCancelledEvent"),
+				types.subList(types.size() - 3, types.size()));
+		assertEquals(0, outboxEventRepository.count());
+
+		// room-service got the stay and then its release, confirmation carries no occupancy change
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<RoomOccupancyDTO>> batches = ArgumentCaptor.forClass(List.class);
+		verify(roomServiceClient, times(2))
+				.post(eq("/api/rooms/occupancy/batch"), batches.capture());
+		assertEquals(4_001L, batches.getAllValues().get(0).get(0).getRoomId());
+		assertTrue(batches.getAllValues().get(1).get(0).isReleased());
+	}
+
+	@TestConfiguration
+	static class Subscribers {
+		@Bean
+		RecordingSubscriber recordingSubscriber() {
+			return new RecordingSubscriber();
+		}
+	}
+
+	static class RecordingSubscriber implements ReservationEventSubscriber {
+		private final List<ReservationEventMessage> received = new ArrayList<>();
+		private boolean failNext;
+
+		@Override
+		public String name() {
+			return "recording";
+		}
+
+		@Override
+		public void deliver(List<ReservationEventMessage> batch) {
+			if (failNext) {
+				failNext = false;
+				throw new RuntimeException("subscriber down");
+			}
+			received.addAll(batch);
+		}
+	}
+}
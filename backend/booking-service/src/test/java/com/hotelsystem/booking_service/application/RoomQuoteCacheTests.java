@@ -0,0 +1,119 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RoomQuoteCacheTests {
+
+	private static final String ROOMS = "http://localhost:10004/api/rooms";
+	private static final LocalDate CHECK_IN = LocalDate.of(2030, 3, 1);
+	private static final LocalDate CHECK_OUT = LocalDate.of(2030, 3, 4);
+
+	private final RestTemplate restTemplate = new RestTemplate();
+	private final MockRestServiceServer roomService = MockRestServiceServer.bindTo(restTemplate).build();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final AtomicLong clock = new AtomicLong();
+	private final RoomQuoteCache cache = new RoomQuoteCache(
+			new RoomServiceClient(restTemplate, registry, "http://localhost:10004", 4, 0, 5, 10_000),
+			registry, 100, 60_000, 600_000, clock::get);
+
+	@Test
+	void changedRoomsAreDroppedAndReloaded() {
+		expectPoll("", "{\"version\":\"1-0\",\"roomIds\":[],\"allRooms\":false}");
+		expectPricing(7, "100.00");
+		expectRates("[]");
+		expectPricing(8, "150.00");
+		expectPoll("?since=1-0", "{\"version\":\"1-1\",\"roomIds\":[7],\"allRooms\":false}");
+		expectPricing(7, "110.00");
+
+		cache.syncChanges();
+		assertEquals(new BigDecimal("300.00"), cache.quote(7L, CHECK_IN, CHECK_OUT).getTotalPrice());
+		assertEquals(new BigDecimal("450.00"), cache.quote(8L, CHECK_IN, CHECK_OUT).getTotalPrice());
+		assertEquals(new BigDecimal("300.00"), cache.quote(7L, CHECK_IN, CHECK_OUT).getTotalPrice());
+
+		cache.syncChanges();
+		assertEquals(new BigDecimal("330.00"), cache.quote(7L, CHECK_IN, CHECK_OUT).getTotalPrice());
+		assertEquals(new BigDecimal("450.00"), cache.quote(8L, CHECK_IN, CHECK_OUT).getTotalPrice());
+
+		roomService.verify();
+		assertEquals(2.0, registry.get("booking.room.quotes.cache").tag("result", "hit").counter().count());
+		assertEquals(3.0, registry.get("booking.room.quotes.cache").tag("result", "miss").counter().count());
+	}
+
+	@Test
+	void expiredEntriesAreReloadedAndPollFailuresShowAsStaleness() {
+		expectPricing(7, "100.00");
+		expectRates("[]");
+		expectPricing(7, "110.00");
+		expectRates("[]");
+
+		cache.quote(7L, CHECK_IN, CHECK_OUT);
+		clock.addAndGet(600_000_000_000L);
+		assertEquals(new BigDecimal("330.00"), cache.quote(7L, CHECK_IN, CHECK_OUT).getTotalPrice());
+
+		// No poll has reached room-service since the cache started
+		assertEquals(600.0, registry.get("booking.room.quotes.cache.staleness.seconds").gauge().value());
+		roomService.verify();
+	}
+
+	@Test
+	void newStaysOfACachedRoomArePricedLocallyUnderTheNewestRule() {
+		expectPricing(7, "100.00");
+		// Every March night at 120, Fridays and Saturdays at 200 by the newer rule
+		expectRates("[" + rate(1, "DELUXE", "2030-03-01", "2030-04-01", null, "120.00") + ","
+				+ rate(3, "STANDARD", "2030-01-01", "2031-01-01", null, "50.00") + ","
+				+ rate(2, "DELUXE", "2030-03-01", "2030-04-01", 48, "200.00") + "]");
+
+		// Friday, Saturday and Sunday
+		assertEquals(new BigDecimal("520.00"), cache.quote(7L, CHECK_IN, CHECK_OUT).getTotalPrice());
+		// Sunday and Monday
+		assertEquals(new BigDecimal("240.00"),
+				cache.quote(7L, LocalDate.of(2030, 3, 10), LocalDate.of(2030, 3, 12)).getTotalPrice());
+		// No rule in April: the room's own price
+		assertEquals(new BigDecimal("200.00"),
+				cache.quote(7L, LocalDate.of(2030, 4, 2), LocalDate.of(2030, 4, 4)).getTotalPrice());
+
+		roomService.verify();
+		assertEquals(2.0, registry.get("booking.room.quotes.cache").tag("result", "hit").counter().count());
+		assertEquals(1.0, registry.get("booking.room.quotes.cache").tag("result", "miss").counter().count());
+	}
+
+	private void expectPoll(String query, String body) {
+		roomService.expect(once(), requestTo(ROOMS + "/price-changes" + query))
+				.andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+	}
+
+	private void expectPricing(long roomId, String pricePerNight) {
+		roomService.expect(once(), requestTo(ROOMS + "/pricing"))
+				.andExpect(method(HttpMethod.POST))
+				.andExpect(content().json("{\"roomIds\":[" + roomId + "]}"))
+				.andRespond(withSuccess("[{\"roomId\":" + roomId + ",\"roomType\":\"DELUXE\",\"pricePerNight\":"
+						+ pricePerNight + "}]", MediaType.APPLICATION_JSON));
+	}
+
+	private void expectRates(String body) {
+		roomService.expect(once(), requestTo(ROOMS + "/rates"))
+				.andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+	}
+
+	private static String rate(long id, String roomType, String start, String end, Integer daysOfWeek, String price) {
+		return "{\"id\":" + id + ",\"roomType\":\"" + roomType + "\",\"startDate\":\"" + start
+				+ "\",\"endDate\":\"" + end + "\",\"daysOfWeek\":" + daysOfWeek + ",\"pricePerNight\":" + price + "}";
+	}
+}
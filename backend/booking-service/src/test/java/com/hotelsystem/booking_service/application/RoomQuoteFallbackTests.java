@@ -0,0 +1,106 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.client.RoomServiceClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Fault injection against a local stand-in for room-service that can be made slow at will
+class RoomQuoteFallbackTests {
+
+	private static final LocalDate CHECK_IN = LocalDate.of(2030, 3, 1);
+
+	private final AtomicLong delayMillis = new AtomicLong();
+	private final ExecutorService serverThreads = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r);
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final AtomicLong clock = new AtomicLong();
+	private HttpServer roomService;
+	private RoomQuoteCache cache;
+
+	@BeforeEach
+	void startRoomService() throws IOException {
+		roomService = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		roomService.createContext("/api/rooms/", exchange -> {
+			try {
+				Thread.sleep(delayMillis.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			String json = exchange.getRequestURI().getPath().endsWith("/rates") ? "[]"
+					: "[{\"roomId\":7,\"roomType\":\"DELUXE\",\"pricePerNight\":120.00}]";
+			byte[] body = json.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		roomService.setExecutor(serverThreads);
+		roomService.start();
+
+		String baseUrl = "http://127.0.0.1:" + roomService.getAddress().getPort();
+		RoomServiceClient client = new RoomServiceClient(
+				new RoomServiceClientConfig().restTemplate(HttpClient.Version.HTTP_1_1, 1_000, 1_000),
+				registry, baseUrl, 4, 50, 3, 60_000);
+		cache = new RoomQuoteCache(client, registry, 100, 60_000, 600_000, clock::get);
+	}
+
+	@AfterEach
+	void stopRoomService() {
+		roomService.stop(0);
+		serverThreads.shutdownNow();
+	}
+
+	@Test
+	void slowRoomServiceDoesNotStallBookingPricing() throws Exception {
+		for (int stay = 0; stay < 20; stay++) {
+			cache.quote(7L, CHECK_IN.plusDays(stay), CHECK_IN.plusDays(stay + 2));
+		}
+		// The cached room and rules are now past expiry, and every reload would take ten seconds
+		clock.addAndGet(601_000_000_000L);
+		delayMillis.set(10_000);
+
+		ExecutorService bookingThreads = Executors.newFixedThreadPool(16);
+		long started = System.nanoTime();
+		List<Future<BigDecimal>> prices = new ArrayList<>();
+		for (int booking = 0; booking < 400; booking++) {
+			int stay = booking % 20;
+			prices.add(bookingThreads.submit(() ->
+					cache.quote(7L, CHECK_IN.plusDays(stay), CHECK_IN.plusDays(stay + 2)).getTotalPrice()));
+		}
+		for (Future<BigDecimal> price : prices) {
+			assertEquals(new BigDecimal("240.00"), price.get());
+		}
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+		bookingThreads.shutdown();
+
+		// A few calls hit the read timeout before the breaker opens; the rest never reach room-service
+		assertTrue(elapsedMillis < 3_000, "400 bookings took " + elapsedMillis + " ms");
+		assertEquals(1.0, registry.get("booking.room.service.circuit.open").gauge().value());
+		assertEquals(400.0, registry.get("booking.room.quotes.cache").tag("result", "stale").counter().count());
+	}
+}
@@ -0,0 +1,82 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.BillingRunResult;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.model.Invoice;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-billing;DB_CLOSE_DELAY=-1")
+class RunBillingCommandHandlerTests {
+
+	private static final LocalDate CHECK_OUT = LocalDate.of(2034, 7, 15);
+
+	@Autowired
+	private RunBillingCommandHandler handler;
+
+	@Autowired
+	private CreateInvoiceCommandHandler createInvoiceCommandHandler;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Test
+	void checkoutDayIsBilledOnceWithServicesAndTax() {
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < 3_000; i++) {
+			bookings.add(booking(7_000L + i, i == 0 ? BookingStatus.CANCELLED : BookingStatus.CONFIRMED));
+		}
+		bookings = bookingRepository.saveAll(bookings);
+
+		// Billed at the desk before the run: room 250.00 + minibar 20.00, 10% tax
+		Long deskInvoiceId = createInvoiceCommandHandler.handle(new CreateInvoiceCommand(bookings.get(1).getId(),
+				List.of(new CreateInvoiceCommand.ServiceLine("Minibar", new BigDecimal("20.00"), null))));
+		Invoice deskInvoice = invoiceRepository.findById(deskInvoiceId).orElseThrow();
+		assertEquals(new BigDecimal("270.00"), deskInvoice.getSubtotal());
+		assertEquals(new BigDecimal("297.00"), deskInvoice.getAmount());
+		// Room service charged later lands on the same invoice
+		assertEquals(deskInvoiceId, createInvoiceCommandHandler.handle(new CreateInvoiceCommand(bookings.get(1).getId(),
+				List.of(new CreateInvoiceCommand.ServiceLine("Room service", new BigDecimal("15.00"), null)))));
+		deskInvoice = invoiceRepository.findById(deskInvoiceId).orElseThrow();
+		assertEquals(new BigDecimal("285.00"), deskInvoice.getSubtotal());
+		assertEquals(new BigDecimal("313.50"), deskInvoice.getAmount());
+
+		BillingRunResult first = handler.handle(new RunBillingCommand(CHECK_OUT));
+		assertEquals(2_999, first.getCheckouts());
+		assertEquals(2_998, first.getInvoiced());
+		assertEquals(1, first.getAlreadyInvoiced());
+		assertEquals(0, first.getFailed());
+		assertEquals(new BigDecimal("275.00"),
+				invoiceRepository.findByBookingId(bookings.get(2).getId()).get(0).getAmount());
+
+		BillingRunResult again = handler.handle(new RunBillingCommand(CHECK_OUT));
+		assertEquals(0, again.getInvoiced());
+		assertEquals(2_999, again.getAlreadyInvoiced());
+		assertEquals(2_999, invoiceRepository.count());
+	}
+
+	private static Booking booking(Long roomId, BookingStatus status) {
+		Booking booking = new Booking();
+		booking.setGuestId("guest-" + roomId);
+		booking.setRoomId(roomId);
+		booking.setCheckInDate(CHECK_OUT.minusDays(2));
+		booking.setCheckOutDate(CHECK_OUT);
+		booking.setStatus(status);
+		booking.setTotalPrice(new BigDecimal("250.00"));
+		return booking;
+	}
+}
@@ -0,0 +1,101 @@
+package com.hotelsystem.booking_service.application;
+
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-updates;DB_CLOSE_DELAY=-1")
+class UpdateBookingCommandHandlerTests {
+
+	private static final LocalDate CHECK_IN = LocalDate.of(2035, 4, 10);
+
+	@Autowired
+	private UpdateBookingCommandHandler handler;
+
+	@Autowired
+	private CreateInvoiceCommandHandler createInvoiceCommandHandler;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@MockBean
+	private RoomQuoteCache roomQuoteCache;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@Test
+	void repricedStayIsRebilledOnItsInvoice() {
+		Long bookingId = save(4_001L);
+		Long invoiceId = invoice(bookingId, "20.00");
+		assertEquals(new BigDecimal("297.00"), amount(invoiceId));
+
+		RoomQuoteDTO quote = new RoomQuoteDTO();
+		quote.setTotalPrice(new BigDecimal("400.00"));
+		when(roomQuoteCache.quote(eq(4_001L), any(), any())).thenReturn(quote);
+		handler.handle(new UpdateBookingCommand(bookingId, null, null, CHECK_IN.plusDays(3), null));
+
+		// Room 400.00 + minibar 20.00, 10% tax
+		assertEquals(new BigDecimal("462.00"), amount(invoiceId));
+	}
+
+	@Test
+	void cancelledStayIsNoLongerBilled() {
+		Long roomOnly = save(4_002L);
+		invoice(roomOnly, null);
+		Long withMinibar = save(4_003L);
+		Long minibarInvoiceId = invoice(withMinibar, "20.00");
+
+		handler.handle(new UpdateBookingCommand(roomOnly, null, null, null, BookingStatus.CANCELLED));
+		handler.handle(new UpdateBookingCommand(withMinibar, null, null, null, BookingStatus.CANCELLED));
+
+		// Nothing is left to bill on the first; the second still charges the minibar
+		assertTrue(invoiceRepository.findByBookingId(roomOnly).isEmpty());
+		assertEquals(new BigDecimal("22.00"), amount(minibarInvoiceId));
+
+		// Revived, the stay is billed again
+		handler.handle(new UpdateBookingCommand(withMinibar, null, null, null, BookingStatus.CONFIRMED));
+		assertEquals(new BigDecimal("297.00"), amount(minibarInvoiceId));
+	}
+
+	private Long save(Long roomId) {
+		Booking booking = new Booking();
+		booking.setGuestId("guest-" + roomId);
+		booking.setRoomId(roomId);
+		booking.setCheckInDate(CHECK_IN);
+		booking.setCheckOutDate(CHECK_IN.plusDays(2));
+		booking.setStatus(BookingStatus.CONFIRMED);
+		booking.setTotalPrice(new BigDecimal("250.00"));
+		return bookingRepository.save(booking).getId();
+	}
+
+	private Long invoice(Long bookingId, String minibar) {
+		List<CreateInvoiceCommand.ServiceLine> services = minibar == null ? List.of()
+				: List.of(new CreateInvoiceCommand.ServiceLine("Minibar", new BigDecimal(minibar), null));
+		return createInvoiceCommandHandler.handle(new CreateInvoiceCommand(bookingId, services));
+	}
+
+	private BigDecimal amount(Long invoiceId) {
+		return invoiceRepository.findById(invoiceId).orElseThrow().getAmount();
+	}
+}
@@ -0,0 +1,207 @@
+package com.hotelsystem.booking_service.controller;
+
+import com.hotelsystem.booking_service.BookingServiceApplication;
+import com.hotelsystem.booking_service.client.VirtualThreads;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Platform-thread and virtual-thread request handling under the same load: 1,000 clients each
+// create bookings back to back, and every booking prices a new room against a room-service stub
+// that takes 20 ms to answer. The numbers depend on the machine, so they are reported rather than
+// asserted. Only runs in the load-test build profile (mvn test -Pload-test).
+@EnabledIfSystemProperty(named = "booking.load-test", matches = "true")
+class BookingLoadTests {
+
+	private static final int CLIENTS = 1_000;
+	private static final int REQUESTS_PER_CLIENT = 10;
+	private static final long ROOM_SERVICE_LATENCY_MS = 20;
+	private static final Pattern ROOM_IDS = Pattern.compile("\"roomIds\":\\[(\\d+)]");
+
+	private static ServerSocket roomService;
+	private static ExecutorService roomServiceThreads;
+
+	@BeforeAll
+	static void startRoomService() throws IOException {
+		roomService = new ServerSocket(0, CLIENTS, InetAddress.getLoopbackAddress());
+		roomServiceThreads = Executors.newCachedThreadPool();
+		roomServiceThreads.execute(() -> {
+			while (!roomService.isClosed()) {
+				try {
+					Socket socket = roomService.accept();
+					roomServiceThreads.execute(() -> serve(socket));
+				} catch (IOException e) {
+					// Closed after the test
+				}
+			}
+		});
+	}
+
+	@AfterAll
+	static void stopRoomService() throws IOException {
+		roomService.close();
+		roomServiceThreads.shutdownNow();
+	}
+
+	@Test
+	void virtualThreadsAgainstPlatformThreads() throws Exception {
+		Result platform = run(false);
+		System.out.println("Booking load, platform threads: " + platform);
+		if (!VirtualThreads.supported()) {
+			System.out.println("Booking load, virtual threads: skipped, needs Java 21 (running on "
+					+ Runtime.version() + ")");
+			return;
+		}
+		Result virtual = run(true);
+		System.out.println("Booking load, virtual threads:  " + virtual);
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		List<String> args = new ArrayList<>(List.of("--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:booking-load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+				"--spring.jpa.show-sql=false",
+				"--booking.room-service.base-url=http://localhost:" + roomService.getLocalPort(),
+				// The bulkhead would turn most of the burst away in either mode; measure the threads instead
+				"--booking.room-service.max-concurrent-calls=" + CLIENTS,
+				"--booking.room-service.max-wait-ms=5000"));
+		if (virtualThreads) {
+			args.add("--spring.profiles.active=virtual-threads");
+		}
+		try (ServletWebServerApplicationContext app = (ServletWebServerApplicationContext)
+				new SpringApplicationBuilder(BookingServiceApplication.class).run(args.toArray(String[]::new))) {
+			URI uri = URI.create("http://localhost:" + app.getWebServer().getPort() + "/api/bookings");
+			// Each mode books its own rooms, so every request misses the quote cache
+			int firstRoom = virtualThreads ? 2_000_000 : 1_000_000;
+			return drive(uri, firstRoom);
+		}
+	}
+
+	// Closed loop: each client sends its next request when the previous one has been answered
+	private Result drive(URI uri, int firstRoom) {
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+		AtomicInteger failures = new AtomicInteger();
+		long started = System.nanoTime();
+		CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+		for (int c = 0; c < CLIENTS; c++) {
+			CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+			for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+				int request = c * REQUESTS_PER_CLIENT + r;
+				String body = "{\"guestId\":\"load-" + c + "\",\"roomId\":" + (firstRoom + request)
+						+ ",\"checkInDate\":\"2038-03-01\",\"checkOutDate\":\"2038-03-04\"}";
+				chain = chain.thenCompose(ignored -> {
+					long sent = System.nanoTime();
+					return client.sendAsync(HttpRequest.newBuilder(uri)
+									.header("Content-Type", "application/json")
+									.POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+							HttpResponse.BodyHandlers.discarding()).handle((response, error) -> {
+						latencies[request] = System.nanoTime() - sent;
+						if (error != null || response.statusCode() != 200) {
+							failures.incrementAndGet();
+						}
+						return null;
+					});
+				});
+			}
+			clients[c] = chain;
+		}
+		CompletableFuture.allOf(clients).join();
+		long elapsed = System.nanoTime() - started;
+
+		Arrays.sort(latencies);
+		return new Result(latencies.length, failures.get(), elapsed, latencies[latencies.length / 2],
+				latencies[(int) (latencies.length * 0.99)]);
+	}
+
+	// Minimal HTTP/1.1 with keep-alive, a thread per connection. The JDK's own HttpServer accepts
+	// connections on a single thread and falls behind at this load, which would measure the stub.
+	private static void serve(Socket socket) {
+		try (socket; InputStream in = new BufferedInputStream(socket.getInputStream());
+			 OutputStream out = socket.getOutputStream()) {
+			String requestLine;
+			while ((requestLine = readLine(in)) != null && !requestLine.isEmpty()) {
+				int contentLength = 0;
+				for (String header = readLine(in); header != null && !header.isEmpty(); header = readLine(in)) {
+					if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+						contentLength = Integer.parseInt(header.substring(15).trim());
+					}
+				}
+				String request = new String(in.readNBytes(contentLength), StandardCharsets.UTF_8);
+				byte[] body = answer(requestLine.split(" ")[1], request).getBytes(StandardCharsets.UTF_8);
+				out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + body.length
+						+ "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+				out.write(body);
+				out.flush();
+			}
+		} catch (IOException e) {
+			// Client went away
+		}
+	}
+
+	private static String answer(String target, String request) {
+		Matcher roomIds = ROOM_IDS.matcher(request);
+		if (target.equals("/api/rooms/pricing") && roomIds.find()) {
+			try {
+				Thread.sleep(ROOM_SERVICE_LATENCY_MS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "[{\"roomId\":" + roomIds.group(1) + ",\"roomType\":\"STANDARD\",\"pricePerNight\":150.00}]";
+		}
+		if (target.equals("/api/rooms/rates")) {
+			return "[]";
+		}
+		if (target.startsWith("/api/rooms/price-changes")) {
+			return "{\"version\":\"1\",\"roomIds\":[],\"allRooms\":false}";
+		}
+		// Occupancy updates from the outbox
+		return "";
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b == -1) {
+				return line.length() == 0 ? null : line.toString();
+			}
+			if (b != '\r') {
+				line.append((char) b);
+			}
+		}
+		return line.toString();
+	}
+
+	private record Result(int requests, int failed, long elapsedNanos, long p50Nanos, long p99Nanos) {
+		@Override
+		public String toString() {
+			return String.format("%d requests (%d failed) in %d ms, %.0f/s, p50 %.1f ms, p99 %.1f ms", requests,
+					failed, elapsedNanos / 1_000_000, requests * 1e9 / elapsedNanos, p50Nanos / 1e6, p99Nanos / 1e6);
+		}
+	}
+}
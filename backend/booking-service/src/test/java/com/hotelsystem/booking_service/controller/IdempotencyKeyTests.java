@@ -0,0 +1,183 @@
+package com.hotelsystem.booking_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.booking_service.application.IdempotencyCommitMarker;
+import com.hotelsystem.booking_service.application.IdempotencyStore;
+import com.hotelsystem.booking_service.application.RoomQuoteCache;
+import com.hotelsystem.booking_service.application.dto.GroupBookingLineResult;
+import com.hotelsystem.booking_service.application.dto.GroupBookingResult;
+import com.hotelsystem.booking_service.application.dto.RoomQuoteDTO;
+import com.hotelsystem.booking_service.client.RoomServiceClient;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import com.hotelsystem.booking_service.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-idempotency;DB_CLOSE_DELAY=-1")
+class IdempotencyKeyTests {
+
+	private static final String BODY = "{\"guestId\":\"guest-i\",\"roomId\":8800,"
+			+ "\"checkInDate\":\"2037-02-01\",\"checkOutDate\":\"2037-02-03\"}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private IdempotencyCommitMarker commitMarker;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockBean
+	private RoomQuoteCache roomQuoteCache;
+
+	@MockBean
+	private RoomServiceClient roomServiceClient;
+
+	@Test
+	void concurrentRetriesCreateOneBookingAndReplayIt() throws Exception {
+		RoomQuoteDTO quote = new RoomQuoteDTO();
+		quote.setTotalPrice(new BigDecimal("220.00"));
+		when(roomQuoteCache.quote(any(), any(), any())).thenAnswer(call -> {
+			Thread.sleep(200); // a slow room-service, so the retries pile up behind the first request
+			return quote;
+		});
+
+		ExecutorService clients = Executors.newFixedThreadPool(16);
+		List<Future<MvcResult>> results = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			results.add(clients.submit(() -> mockMvc.perform(post("/api/bookings").header("Idempotency-Key", "k-1")
+					.contentType(MediaType.APPLICATION_JSON).content(BODY)).andExpect(status().isOk()).andReturn()));
+		}
+		List<String> bookingIds = new ArrayList<>();
+		int replayed = 0;
+		for (Future<MvcResult> result : results) {
+			bookingIds.add(result.get().getResponse().getContentAsString());
+			replayed += "true".equals(result.get().getResponse().getHeader("Idempotent-Replayed")) ? 1 : 0;
+		}
+		clients.shutdown();
+
+		assertEquals(1, bookingIds.stream().distinct().count());
+		assertEquals(15, replayed);
+		verify(roomQuoteCache, times(1)).quote(any(), any(), any());
+		assertEquals(1, bookingRepository.findAll().stream().filter(b -> b.getRoomId() == 8_800L).count());
+
+		// The same key for another request is refused
+		mockMvc.perform(post("/api/bookings").header("Idempotency-Key", "k-1")
+				.contentType(MediaType.APPLICATION_JSON).content(BODY.replace("8800", "8801")))
+				.andExpect(status().isUnprocessableEntity());
+	}
+
+	@Test
+	void failedRequestReleasesItsKey() {
+		AtomicInteger runs = new AtomicInteger();
+		assertThrows(RuntimeException.class, () -> idempotencyStore.execute("test", "k-2", "body", Long.class, () -> {
+			runs.incrementAndGet();
+			throw new RuntimeException("room-service down");
+		}));
+		IdempotencyStore.Result<Long> retry = idempotencyStore.execute("test", "k-2", "body", Long.class,
+				() -> (long) runs.incrementAndGet());
+		assertEquals(2L, retry.value());
+		assertFalse(retry.replayed());
+		assertTrue(idempotencyStore.execute("test", "k-2", "body", Long.class, () -> -1L).replayed());
+	}
+
+	@Test
+	void committedRequestIsNeverRunAgain() {
+		AtomicInteger runs = new AtomicInteger();
+		// The request's transaction commits, then it fails before its response is stored
+		assertThrows(RuntimeException.class, () -> idempotencyStore.execute("test", "k-3", "body", Long.class, () -> {
+			transactionTemplate.executeWithoutResult(status -> runs.incrementAndGet());
+			throw new RuntimeException("connection lost");
+		}));
+		// Long past the claim timeout, the retry is still refused rather than run
+		backdateClaim("test:k-3");
+		ResponseStatusException retry = assertThrows(ResponseStatusException.class, () -> idempotencyStore.execute(
+				"test", "k-3", "body", Long.class, () -> (long) runs.incrementAndGet()));
+		assertEquals(HttpStatus.CONFLICT, retry.getStatusCode());
+		assertEquals(1, runs.get());
+
+		// A request whose claim was taken over as abandoned rolls back instead of committing
+		assertThrows(ResponseStatusException.class, () -> idempotencyStore.execute("test", "k-4", "body", Long.class,
+				() -> transactionTemplate.execute(status -> {
+					backdateClaim("test:k-4");
+					return (long) jdbcTemplate.update("insert into idempotency_records (id, fingerprint, created_at,"
+							+ " expires_at) values ('test:k-4-write', 'x', current_timestamp, current_timestamp)");
+				})));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"select count(*) from idempotency_records where id = 'test:k-4-write'", Integer.class));
+	}
+
+	@Test
+	void largeGroupResultIsReplayedFromTheStore() {
+		GroupBookingResult result = new GroupBookingResult();
+		for (int line = 1; line <= 400; line++) {
+			result.getLines().add(new GroupBookingLineResult(line, 20_000L + line, null, null, null,
+					"Not booked: another room of the block is already booked between 2037-03-01 and 2037-03-08."));
+		}
+		result.setRequested(400);
+		idempotencyStore.execute("create-group-booking", "k-5", "block", GroupBookingResult.class, () -> result);
+		assertTrue(jdbcTemplate.queryForObject("select length(response) from idempotency_records"
+				+ " where id = 'create-group-booking:k-5'", Integer.class) > 50_000);
+
+		// Another instance has nothing in memory and reads the stored response
+		IdempotencyStore otherInstance = new IdempotencyStore(idempotencyRecordRepository, commitMarker,
+				transactionTemplate, objectMapper, new SimpleMeterRegistry(), 24, 30_000, 100);
+		IdempotencyStore.Result<GroupBookingResult> replay = otherInstance.execute("create-group-booking", "k-5",
+				"block", GroupBookingResult.class, () -> {
+					throw new AssertionError("ran again");
+				});
+		assertTrue(replay.replayed());
+		assertEquals(result, replay.value());
+	}
+
+	private void backdateClaim(String id) {
+		jdbcTemplate.update("update idempotency_records set created_at = dateadd('HOUR', -1, created_at) where id = ?", id);
+	}
+}
@@ -0,0 +1,99 @@
+package com.hotelsystem.booking_service.controller;
+
+import com.hotelsystem.booking_service.application.CreateInvoiceCommand;
+import com.hotelsystem.booking_service.application.CreateInvoiceCommandHandler;
+import com.hotelsystem.booking_service.model.Booking;
+import com.hotelsystem.booking_service.model.BookingStatus;
+import com.hotelsystem.booking_service.repository.BookingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:booking-reads;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"booking.outbox.poll-interval-ms=3600000",
+		"booking.confirmation.enabled=false"
+})
+class ReadStatementCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private CreateInvoiceCommandHandler createInvoiceCommandHandler;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private int seeded;
+
+	@Test
+	void readsCostTheSameStatementsForFewOrManyRows() throws Exception {
+		seed(3);
+		List<Long> few = statementCounts();
+		seed(60);
+		List<Long> many = statementCounts();
+
+		assertEquals(few, many);
+		// Bookings list, one booking and a guest page are one statement each; invoices are two
+		assertEquals(List.of(1L, 1L, 1L, 2L), many);
+
+		mockMvc.perform(get("/api/invoices"))
+				.andExpect(jsonPath("$[0].bookingId").isNumber())
+				.andExpect(jsonPath("$[0].services[0].name").value("Spa"))
+				.andExpect(jsonPath("$[0].booking").doesNotExist());
+	}
+
+	private List<Long> statementCounts() throws Exception {
+		Long firstId = bookingRepository.findAll().get(0).getId();
+		return List.of(
+				statements(get("/api/bookings")),
+				statements(get("/api/bookings/" + firstId)),
+				statements(get("/api/bookings").param("guestId", "guest-reads")),
+				statements(get("/api/invoices")));
+	}
+
+	private long statements(RequestBuilder request) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(request).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	// Each booking gets an invoice with a service line
+	private void seed(int count) {
+		for (int i = 0; i < count; i++) {
+			Booking booking = new Booking();
+			booking.setGuestId("guest-reads");
+			booking.setRoomId(300L + seeded);
+			booking.setCheckInDate(LocalDate.of(2035, 1, 1).plusDays(seeded));
+			booking.setCheckOutDate(LocalDate.of(2035, 1, 3).plusDays(seeded));
+			booking.setStatus(BookingStatus.CONFIRMED);
+			booking.setTotalPrice(new BigDecimal("180.00"));
+			Long bookingId = bookingRepository.save(booking).getId();
+			createInvoiceCommandHandler.handle(new CreateInvoiceCommand(bookingId,
+					List.of(new CreateInvoiceCommand.ServiceLine("Spa", new BigDecimal("45.00"), null))));
+			seeded++;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.hotelsystem.room_service.application;
+
+import java.util.List;
+
+// Amenity names of a search translated for the rooms table: names with a bit are matched against
+// Room.amenityMask, the rest (registered after the 63 bits ran out) need a join.
+public record AmenityFilter(long mask, List<String> unindexedNames, boolean unsatisfiable) {
+
+    public static final AmenityFilter NONE = new AmenityFilter(0L, List.of(), false);
+
+    public boolean isEmpty() {
+        return mask == 0L && unindexedNames.isEmpty() && !unsatisfiable;
+    }
+
+    public boolean isMaskOnly() {
+        return unindexedNames.isEmpty();
+    }
+}
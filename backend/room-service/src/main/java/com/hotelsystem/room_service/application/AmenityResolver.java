@@ -0,0 +1,253 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.Amenity;
+import com.hotelsystem.room_service.repository.AmenityRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Turns the amenity names of a room command into Amenity entities with a constant number of queries:
+// cached names become references without a select, the rest are looked up in one IN query and
+// any still missing are inserted together.
+// Also the registry of amenity bits: each new amenity takes the next free position in Room.amenityMask.
+@Component
+public class AmenityResolver {
+
+    // Bits 0..62, so masks stay non-negative
+    public static final int MASK_BITS = 63;
+
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final AmenityRepository amenityRepository;
+    private final TransactionTemplate ownTransaction;
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, CachedAmenity> byName;
+    private Integer nextBitIndex;
+
+    public AmenityResolver(AmenityRepository amenityRepository, PlatformTransactionManager transactionManager,
+                           @Value("${room.amenities.cache-size:1024}") int cacheSize) {
+        this.amenityRepository = amenityRepository;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.byName = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAmenity> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // Must run inside the caller's transaction; returned amenities keep the order of the names
+    public ResolvedAmenities resolve(Collection<String> names) {
+        return resolveAll(List.of(names)).get(0);
+    }
+
+    // One lookup for the union of several rooms' names, split back per room; a null entry resolves to no amenities
+    public List<ResolvedAmenities> resolveAll(List<? extends Collection<String>> namesPerRoom) {
+        Set<String> union = new LinkedHashSet<>();
+        for (Collection<String> names : namesPerRoom) {
+            if (names != null) {
+                union.addAll(normalize(names));
+            }
+        }
+        Map<String, ResolvedAmenity> resolved = resolveNames(union);
+
+        List<ResolvedAmenities> result = new ArrayList<>(namesPerRoom.size());
+        for (Collection<String> names : namesPerRoom) {
+            Set<String> wanted = names == null ? Set.of() : normalize(names);
+            List<Amenity> amenities = new ArrayList<>(wanted.size());
+            long mask = 0L;
+            for (String name : wanted) {
+                ResolvedAmenity amenity = resolved.get(name);
+                amenities.add(amenity.amenity());
+                mask |= amenity.bit();
+            }
+            result.add(new ResolvedAmenities(amenities, mask));
+        }
+        return result;
+    }
+
+    private Map<String, ResolvedAmenity> resolveNames(Set<String> wanted) {
+        Map<String, ResolvedAmenity> resolved = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String name : wanted) {
+            CachedAmenity cached = cached(name);
+            if (cached != null) {
+                resolved.put(name, new ResolvedAmenity(amenityRepository.getReferenceById(cached.id()), bit(cached.bitIndex())));
+            } else {
+                misses.add(name);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (Amenity amenity : amenityRepository.findByNameIn(misses)) {
+                resolved.put(amenity.getName(), new ResolvedAmenity(amenity, bit(amenity.getBitIndex())));
+                cache(amenity);
+            }
+            List<String> newNames = new ArrayList<>();
+            for (String name : misses) {
+                if (!resolved.containsKey(name)) {
+                    newNames.add(name);
+                }
+            }
+            if (!newNames.isEmpty()) {
+                // Already committed, so they can be cached and referenced right away
+                for (Amenity amenity : insert(newNames)) {
+                    resolved.put(amenity.getName(), new ResolvedAmenity(
+                            amenityRepository.getReferenceById(amenity.getId()), bit(amenity.getBitIndex())));
+                    cache(amenity);
+                }
+            }
+        }
+        return resolved;
+    }
+
+    // Translates a search's amenity names; never inserts, an unknown name simply matches no room
+    public AmenityFilter filterFor(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return AmenityFilter.NONE;
+        }
+        Set<String> wanted = normalize(names);
+        Map<String, Integer> bitByName = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String name : wanted) {
+            CachedAmenity cached = cached(name);
+            if (cached != null) {
+                bitByName.put(name, cached.bitIndex());
+            } else {
+                misses.add(name);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Amenity amenity : amenityRepository.findByNameIn(misses)) {
+                bitByName.put(amenity.getName(), amenity.getBitIndex());
+                cache(amenity);
+            }
+        }
+
+        long mask = 0L;
+        List<String> unindexed = new ArrayList<>();
+        for (String name : wanted) {
+            if (!bitByName.containsKey(name)) {
+                return new AmenityFilter(0L, List.of(), true);
+            }
+            Integer bitIndex = bitByName.get(name);
+            if (bitIndex == null) {
+                unindexed.add(name);
+            } else {
+                mask |= bit(bitIndex);
+            }
+        }
+        return new AmenityFilter(mask, unindexed, false);
+    }
+
+    // New amenities commit in their own transaction. Two writes adding the same name at once both
+    // miss the lookup; the loser's insert hits the unique name, so it reads the winner's rows and
+    // inserts only what is still missing. Amenities outlive a room write that later rolls back.
+    // Bits are taken once per name and kept across retries, so a lost race costs at most the bits of
+    // the names the winner inserted.
+    private List<Amenity> insert(List<String> names) {
+        Map<String, Integer> bits = assignBits(names);
+        List<Amenity> stored = new ArrayList<>();
+        List<String> missing = names;
+        for (int attempt = 1; ; attempt++) {
+            List<Amenity> batch = new ArrayList<>();
+            for (String name : missing) {
+                batch.add(new Amenity(null, name, "Description for " + name, bits.get(name)));
+            }
+            try {
+                stored.addAll(ownTransaction.execute(status -> amenityRepository.saveAllAndFlush(batch)));
+                return stored;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    throw e;
+                }
+                List<String> lost = missing;
+                List<Amenity> existing = ownTransaction.execute(status -> amenityRepository.findByNameIn(lost));
+                stored.addAll(existing);
+                Set<String> found = new HashSet<>();
+                existing.forEach(amenity -> found.add(amenity.getName()));
+                missing = missing.stream().filter(name -> !found.contains(name)).toList();
+                if (missing.isEmpty()) {
+                    return stored;
+                }
+            }
+        }
+    }
+
+    // Registry state lives in the database; the counter only saves a max() per insert.
+    // A rolled-back insert leaves its bits unused rather than risk handing them out twice.
+    // Names past the last bit map to null and are matched through room_amenities
+    private Map<String, Integer> assignBits(List<String> names) {
+        Map<String, Integer> bits = new HashMap<>();
+        lock.lock();
+        try {
+            if (nextBitIndex == null) {
+                Integer max = amenityRepository.findMaxBitIndex();
+                nextBitIndex = max == null ? 0 : max + 1;
+            }
+            for (String name : names) {
+                bits.put(name, nextBitIndex < MASK_BITS ? nextBitIndex++ : null);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return bits;
+    }
+
+    public static long bit(Integer bitIndex) {
+        return bitIndex == null ? 0L : 1L << bitIndex;
+    }
+
+    private static Set<String> normalize(Collection<String> names) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : names) {
+            String trimmed = name == null ? "" : name.trim();
+            if (!trimmed.isEmpty()) {
+                wanted.add(trimmed);
+            }
+        }
+        return wanted;
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            byName.clear();
+            nextBitIndex = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CachedAmenity cached(String name) {
+        lock.lock();
+        try {
+            return byName.get(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cache(Amenity amenity) {
+        lock.lock();
+        try {
+            byName.put(amenity.getName(), new CachedAmenity(amenity.getId(), amenity.getBitIndex()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record CachedAmenity(Long id, Integer bitIndex) {
+    }
+
+    private record ResolvedAmenity(Amenity amenity, long bit) {
+    }
+}
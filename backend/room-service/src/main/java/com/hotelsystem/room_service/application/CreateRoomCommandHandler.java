@@ -1,11 +1,13 @@
 package com.hotelsystem.room_service.application;
 
+import com.hotelsystem.room_service.event.RoomChangedEvent;
 import com.hotelsystem.room_service.model.Room;
 import com.hotelsystem.room_service.model.RoomStatus;
 import com.hotelsystem.room_service.model.RoomView;
 import com.hotelsystem.room_service.model.BedType;
 import com.hotelsystem.room_service.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,7 +16,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class CreateRoomCommandHandler {
 
     private final RoomRepository roomRepository;
-    private final com.hotelsystem.room_service.repository.AmenityRepository amenityRepository;
+    private final AmenityResolver amenityResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoomImageStore imageStore;
 
     @Transactional
     public Long handle(CreateRoomCommand command) {
@@ -28,27 +32,22 @@ public class CreateRoomCommandHandler {
         room.setPricePerNight(command.getPricePerNight());
         room.setStatus(RoomStatus.AVAILABLE);
         room.setDescription(command.getDescription());
-        room.setImageUrl(command.getImageUrl());
+        room.setImageUrl(imageStore.toReference(command.getImageUrl()));
 
         // Extended Fields
         room.setViewType(command.getViewType());
         room.setMaxGuests(command.getMaxGuests());
         room.setBedCount(command.getBedCount());
+        room.setAmenityMask(0L);
 
         if (command.getAmenities() != null) {
-            java.util.List<com.hotelsystem.room_service.model.Amenity> amenityEntities = new java.util.ArrayList<>();
-            for (String amenityName : command.getAmenities()) {
-                String trimmedName = amenityName.trim();
-                if (!trimmedName.isEmpty()) {
-                    com.hotelsystem.room_service.model.Amenity amenity = amenityRepository.findByName(trimmedName)
-                        .orElseGet(() -> amenityRepository.save(new com.hotelsystem.room_service.model.Amenity(null, trimmedName, "Description for " + trimmedName)));
-                    amenityEntities.add(amenity);
-                }
-            }
-            room.setAmenities(amenityEntities);
+            ResolvedAmenities amenities = amenityResolver.resolve(command.getAmenities());
+            room.setAmenities(amenities.amenities());
+            room.setAmenityMask(amenities.mask());
         }
 
         Room savedRoom = roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(savedRoom.getId(), savedRoom));
         return savedRoom.getId();
     }
 }
@@ -0,0 +1,20 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.RoomType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+@Data
+public class CreateRoomRateCommand {
+    private RoomType roomType;
+    private LocalDate startDate;
+    // Exclusive, like a check-out date
+    private LocalDate endDate;
+    // Empty or null for every day of the week
+    private Set<DayOfWeek> daysOfWeek;
+    private BigDecimal pricePerNight;
+}
@@ -0,0 +1,45 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomRatesChangedEvent;
+import com.hotelsystem.room_service.model.RoomRate;
+import com.hotelsystem.room_service.repository.RoomRateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+
+@Service
+@RequiredArgsConstructor
+public class CreateRoomRateCommandHandler {
+
+    private final RoomRateRepository roomRateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Long handle(CreateRoomRateCommand command) {
+        if (command.getRoomType() == null || command.getStartDate() == null || command.getEndDate() == null) {
+            throw new RuntimeException("Room type and rate dates are required.");
+        }
+        if (!command.getEndDate().isAfter(command.getStartDate())) {
+            throw new RuntimeException("Rate end date must be after its start date.");
+        }
+        if (command.getPricePerNight() == null || command.getPricePerNight().signum() < 0) {
+            throw new RuntimeException("Rate price per night must not be negative.");
+        }
+
+        Integer daysOfWeek = null;
+        if (command.getDaysOfWeek() != null && !command.getDaysOfWeek().isEmpty()) {
+            daysOfWeek = 0;
+            for (DayOfWeek day : command.getDaysOfWeek()) {
+                daysOfWeek |= 1 << (day.getValue() - 1);
+            }
+        }
+
+        RoomRate rate = roomRateRepository.save(new RoomRate(null, command.getRoomType(), command.getStartDate(),
+                command.getEndDate(), daysOfWeek, command.getPricePerNight()));
+        eventPublisher.publishEvent(new RoomRatesChangedEvent(rate.getId()));
+        return rate.getId();
+    }
+}
@@ -1,8 +1,10 @@
 package com.hotelsystem.room_service.application;
 
+import com.hotelsystem.room_service.event.RoomChangedEvent;
 import com.hotelsystem.room_service.model.Room;
 import com.hotelsystem.room_service.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class DeleteRoomCommandHandler {
 
     private final RoomRepository roomRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void handle(DeleteRoomCommand command) {
@@ -18,5 +21,6 @@ public class DeleteRoomCommandHandler {
             throw new RuntimeException("Room not found with ID: " + command.getId());
         }
         roomRepository.deleteById(command.getId());
+        eventPublisher.publishEvent(new RoomChangedEvent(command.getId(), null));
     }
 }
@@ -0,0 +1,12 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeleteRoomRateCommand {
+    private Long id;
+}
@@ -0,0 +1,25 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomRatesChangedEvent;
+import com.hotelsystem.room_service.repository.RoomRateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class DeleteRoomRateCommandHandler {
+
+    private final RoomRateRepository roomRateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void handle(DeleteRoomRateCommand command) {
+        if (!roomRateRepository.existsById(command.getId())) {
+            throw new RuntimeException("Rate not found with ID: " + command.getId());
+        }
+        roomRateRepository.deleteById(command.getId());
+        eventPublisher.publishEvent(new RoomRatesChangedEvent(command.getId()));
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -21,4 +22,7 @@ public class GetAvailableRoomsQuery {
     private com.hotelsystem.room_service.model.RoomView viewType;
     private Integer maxGuests;
     private Integer bedCount;
+
+    // Rooms must have all of these amenities
+    private List<String> amenities;
 }
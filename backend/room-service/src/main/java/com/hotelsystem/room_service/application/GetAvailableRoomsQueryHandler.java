@@ -1,59 +1,92 @@
 package com.hotelsystem.room_service.application;
 
 import com.hotelsystem.room_service.model.Room;
-import com.hotelsystem.room_service.model.RoomStatus;
 import com.hotelsystem.room_service.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.hotelsystem.room_service.repository.RoomSpecifications.*;
+
 @Service
 @RequiredArgsConstructor
 public class GetAvailableRoomsQueryHandler {
 
     private final RoomRepository roomRepository;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final RoomCatalogSnapshot catalogSnapshot;
+    private final AmenityResolver amenityResolver;
+
+    @Value("${room.catalog.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
 
     @Transactional(readOnly = true)
     public List<Room> handle(GetAvailableRoomsQuery query) {
-        // Fetch all rooms (in a real app, use dynamic query/Specification)
-        List<Room> allRooms = roomRepository.findAll();
-
-        return allRooms.stream()
-                .filter(room -> {
-                    // Filter by Type
-                    if (query.getType() != null && !room.getType().equals(query.getType())) {
-                        return false;
-                    }
-                    // Filter by Status
-                    if (query.getStatus() != null && !room.getStatus().equals(query.getStatus())) {
-                        return false;
-                    }
-                    // Filter by Min Price
-                    if (query.getMinPrice() != null && room.getPricePerNight()
-                            .compareTo(java.math.BigDecimal.valueOf(query.getMinPrice())) < 0) {
-                        return false;
-                    }
-                    // Filter by Max Price
-                    if (query.getMaxPrice() != null && room.getPricePerNight()
-                            .compareTo(java.math.BigDecimal.valueOf(query.getMaxPrice())) > 0) {
-                        return false;
-                    }
-                    // Filter by View Type
-                    if (query.getViewType() != null && !room.getViewType().equals(query.getViewType())) {
-                        return false;
-                    }
-                    // Filter by Max Guests (>=)
-                    if (query.getMaxGuests() != null && room.getMaxGuests() < query.getMaxGuests()) {
-                        return false;
-                    }
-                    // Filter by Bed Count (>=)
-                    if (query.getBedCount() != null && room.getBedCount() < query.getBedCount()) {
-                        return false;
-                    }
-                    return true;
-                })
+        boolean dateRange = query.getCheckInDate() != null && query.getCheckOutDate() != null;
+        if (dateRange && !query.getCheckOutDate().isAfter(query.getCheckInDate())) {
+            throw new RuntimeException("Check-out date must be after check-in date.");
+        }
+
+        AmenityFilter amenities = amenityResolver.filterFor(query.getAmenities());
+        if (amenities.unsatisfiable()) {
+            return List.of();
+        }
+
+        // The snapshot only holds masks; amenities past the last bit need the join in the database
+        if (snapshotEnabled && catalogSnapshot.isReady() && amenities.isMaskOnly()) {
+            return searchSnapshot(query, amenities, dateRange);
+        }
+
+        // Static filters run in the database against the rooms indexes
+        List<Room> rooms = roomRepository.findAll(toSpecification(query, amenities));
+
+        if (!dateRange) {
+            return rooms;
+        }
+        // Filter out rooms already reserved for any night of the stay
+        return rooms.stream()
+                .filter(room -> availabilityCalendar.isAvailable(room.getId(), query.getCheckInDate(),
+                        query.getCheckOutDate()))
                 .toList();
     }
+
+    // Filters resolve against the in-memory columns; only matching rooms are loaded from the database
+    private List<Room> searchSnapshot(GetAvailableRoomsQuery query, AmenityFilter amenities, boolean dateRange) {
+        long[] ids = catalogSnapshot.search(query, amenities.mask());
+        List<Long> matches = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            if (!dateRange || availabilityCalendar.isAvailable(id, query.getCheckInDate(), query.getCheckOutDate())) {
+                matches.add(id);
+            }
+        }
+        return matches.isEmpty() ? List.of() : roomRepository.findByIdIn(matches);
+    }
+
+    static Specification<Room> toSpecification(GetAvailableRoomsQuery query, AmenityFilter amenities) {
+        if (amenities.unsatisfiable()) {
+            return none();
+        }
+        Specification<Room> specification = Specification.where(hasStatus(query.getStatus()))
+                .and(hasType(query.getType()))
+                .and(priceAtLeast(toPrice(query.getMinPrice())))
+                .and(priceAtMost(toPrice(query.getMaxPrice())))
+                .and(hasView(query.getViewType()))
+                .and(guestsAtLeast(query.getMaxGuests()))
+                .and(bedsAtLeast(query.getBedCount()))
+                .and(hasAmenityBits(amenities.mask()));
+        for (String name : amenities.unindexedNames()) {
+            specification = specification.and(hasAmenityNamed(name));
+        }
+        return specification;
+    }
+
+    private static BigDecimal toPrice(Double price) {
+        return price == null ? null : BigDecimal.valueOf(price);
+    }
 }
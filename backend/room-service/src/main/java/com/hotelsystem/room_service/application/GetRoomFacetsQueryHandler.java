@@ -0,0 +1,162 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.application.dto.RoomFacets;
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.model.RoomView;
+import com.hotelsystem.room_service.repository.RoomSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Counts for the search page's filter sidebar. Every facet comes out of one pass over the catalog
+// snapshot, and results are cached per filter set until the catalog version moves on.
+@Service
+public class GetRoomFacetsQueryHandler {
+
+    private final EntityManager entityManager;
+    private final RoomCatalogSnapshot catalogSnapshot;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final RoomCatalogVersion catalogVersion;
+    private final AmenityResolver amenityResolver;
+
+    private final BigDecimal[] priceBands;
+    private final long[] priceBandCents;
+    private final int maxGuestBucket;
+    private final int cacheSize;
+
+    private final Lock cacheLock = new ReentrantLock();
+    private final Map<String, Cached> cache;
+
+    public GetRoomFacetsQueryHandler(EntityManager entityManager, RoomCatalogSnapshot catalogSnapshot,
+                                     RoomAvailabilityCalendar availabilityCalendar, RoomCatalogVersion catalogVersion,
+                                     AmenityResolver amenityResolver,
+                                     @Value("${room.facets.price-bands:100,200,300,500,1000}") BigDecimal[] priceBands,
+                                     @Value("${room.facets.max-guests:6}") int maxGuestBucket,
+                                     @Value("${room.facets.cache-size:256}") int cacheSize) {
+        this.entityManager = entityManager;
+        this.catalogSnapshot = catalogSnapshot;
+        this.availabilityCalendar = availabilityCalendar;
+        this.catalogVersion = catalogVersion;
+        this.amenityResolver = amenityResolver;
+        this.priceBands = priceBands.clone();
+        Arrays.sort(this.priceBands);
+        this.priceBandCents = Arrays.stream(this.priceBands)
+                .mapToLong(band -> band.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue())
+                .toArray();
+        this.maxGuestBucket = maxGuestBucket;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Transactional(readOnly = true)
+    public RoomFacets handle(GetAvailableRoomsQuery query) {
+        boolean dateRange = query.getCheckInDate() != null && query.getCheckOutDate() != null;
+        if (dateRange && !query.getCheckOutDate().isAfter(query.getCheckInDate())) {
+            throw new RuntimeException("Check-out date must be after check-in date.");
+        }
+
+        // Read before computing: a write racing the pass leaves an entry that is stale on the next read
+        String version = catalogVersion.current();
+        String key = query.toString();
+        Cached cached = cached(key);
+        if (cached != null && cached.version.equals(version)) {
+            return cached.facets;
+        }
+
+        RoomFacets facets = compute(query, dateRange);
+        cacheLock.lock();
+        try {
+            cache.put(key, new Cached(version, facets));
+            if (cache.size() > cacheSize) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+        return facets;
+    }
+
+    private Cached cached(String key) {
+        cacheLock.lock();
+        try {
+            return cache.get(key);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private RoomFacets compute(GetAvailableRoomsQuery query, boolean dateRange) {
+        AmenityFilter amenities = amenityResolver.filterFor(query.getAmenities());
+        if (amenities.unsatisfiable()) {
+            return toFacets(null);
+        }
+        if (!catalogSnapshot.isReady()) {
+            catalogSnapshot.load();
+        }
+        // Amenities past the last mask bit are matched in the database and passed in as an ID set
+        Collection<Long> allowedIds = amenities.unindexedNames().isEmpty() ? null : idsWithAmenities(amenities);
+        long[] busy = dateRange
+                ? availabilityCalendar.busyRooms(query.getCheckInDate(), query.getCheckOutDate())
+                : new long[0];
+        return toFacets(catalogSnapshot.facets(query, amenities.mask(), allowedIds, busy, priceBandCents,
+                maxGuestBucket));
+    }
+
+    private List<Long> idsWithAmenities(AmenityFilter amenities) {
+        Specification<Room> specification = Specification.where(null);
+        for (String name : amenities.unindexedNames()) {
+            specification = specification.and(RoomSpecifications.hasAmenityNamed(name));
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Room> room = cq.from(Room.class);
+        cq.select(room.get("id")).where(specification.toPredicate(room, cq, cb));
+        return entityManager.createQuery(cq).getResultList();
+    }
+
+    private RoomFacets toFacets(RoomCatalogSnapshot.Facets counts) {
+        Map<String, Integer> types = new LinkedHashMap<>();
+        for (RoomType type : RoomType.values()) {
+            types.put(type.name(), counts == null ? 0 : counts.types()[type.ordinal()]);
+        }
+        Map<String, Integer> views = new LinkedHashMap<>();
+        for (RoomView view : RoomView.values()) {
+            views.put(view.name(), counts == null ? 0 : counts.views()[view.ordinal()]);
+        }
+        List<RoomFacets.PriceBand> bands = new ArrayList<>(priceBands.length + 1);
+        for (int i = 0; i <= priceBands.length; i++) {
+            bands.add(new RoomFacets.PriceBand(i == 0 ? null : priceBands[i - 1],
+                    i == priceBands.length ? null : priceBands[i], counts == null ? 0 : counts.priceBands()[i]));
+        }
+        Map<String, Integer> guests = new LinkedHashMap<>();
+        for (int i = 1; i <= maxGuestBucket; i++) {
+            int count = counts == null ? 0 : counts.guests()[i];
+            // Bucket 0 only holds rooms with a non-positive capacity; fold it into the first one
+            if (i == 1 && counts != null) {
+                count += counts.guests()[0];
+            }
+            guests.put(i == maxGuestBucket ? i + "+" : String.valueOf(i), count);
+        }
+        return new RoomFacets(counts == null ? 0 : counts.total(), types, views, bands, guests);
+    }
+
+    private record Cached(String version, RoomFacets facets) {
+    }
+}
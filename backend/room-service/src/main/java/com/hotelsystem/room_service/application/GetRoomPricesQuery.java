@@ -0,0 +1,15 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// What a stay is priced from, for callers that quote locally: each room's type and base price
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRoomPricesQuery {
+    private List<Long> roomIds;
+}
@@ -11,7 +11,12 @@ public class GetRoomQueryHandler {
     private final RoomRepository roomRepository;
 
     public Room handle(GetRoomQuery query) {
-        return roomRepository.findById(query.getId())
+        return roomRepository.findWithAmenitiesById(query.getId())
                 .orElseThrow(() -> new RuntimeException("Room not found with ID: " + query.getId()));
     }
+
+    // Current version without loading the room; null when it does not exist
+    public Long version(GetRoomQuery query) {
+        return roomRepository.findVersionById(query.getId());
+    }
 }
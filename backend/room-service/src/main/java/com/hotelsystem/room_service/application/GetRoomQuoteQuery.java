@@ -0,0 +1,16 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRoomQuoteQuery {
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+}
@@ -0,0 +1,101 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.application.dto.RoomPricing;
+import com.hotelsystem.room_service.application.dto.RoomQuote;
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Prices stays from memory: the room's type and base price come from the catalog snapshot and the
+// nights from the rate calendar's prefix sums, so a quote costs the same for 1 night or 300.
+@Service
+@RequiredArgsConstructor
+public class GetRoomQuoteQueryHandler {
+
+    private final RoomCatalogSnapshot catalogSnapshot;
+    private final RoomRateCalendar rateCalendar;
+    private final RoomRepository roomRepository;
+
+    public RoomQuote handle(GetRoomQuoteQuery query) {
+        validate(query.getCheckInDate(), query.getCheckOutDate());
+        RoomQuote quote = quote(query.getRoomId(), query.getCheckInDate(), query.getCheckOutDate());
+        if (quote == null) {
+            throw new RuntimeException("Room not found with ID: " + query.getRoomId());
+        }
+        return quote;
+    }
+
+    // Rooms that do not exist are left out rather than failing the whole batch
+    public List<RoomQuote> handle(GetRoomQuotesQuery query) {
+        validate(query.getCheckInDate(), query.getCheckOutDate());
+        if (query.getRoomIds() == null) {
+            return List.of();
+        }
+        List<RoomQuote> quotes = new ArrayList<>(query.getRoomIds().size());
+        for (Long roomId : query.getRoomIds()) {
+            RoomQuote quote = quote(roomId, query.getCheckInDate(), query.getCheckOutDate());
+            if (quote != null) {
+                quotes.add(quote);
+            }
+        }
+        return quotes;
+    }
+
+    // Base prices for quoting against GET /api/rooms/rates; unknown rooms are left out
+    public List<RoomPricing> handle(GetRoomPricesQuery query) {
+        if (query.getRoomIds() == null) {
+            return List.of();
+        }
+        List<RoomPricing> prices = new ArrayList<>(query.getRoomIds().size());
+        for (Long roomId : query.getRoomIds()) {
+            RoomCatalogSnapshot.RoomPrice price = priceOf(roomId);
+            if (price != null) {
+                prices.add(new RoomPricing(roomId, price.type(), BigDecimal.valueOf(price.priceCents(), 2)));
+            }
+        }
+        return prices;
+    }
+
+    private RoomQuote quote(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCatalogSnapshot.RoomPrice price = priceOf(roomId);
+        if (price == null) {
+            return null;
+        }
+        long cents = rateCalendar.quote(price.type(), price.priceCents(), checkIn, checkOut);
+        int nights = (int) (checkOut.toEpochDay() - checkIn.toEpochDay());
+        return new RoomQuote(roomId, checkIn, checkOut, nights, BigDecimal.valueOf(cents, 2), price.type());
+    }
+
+    private RoomCatalogSnapshot.RoomPrice priceOf(Long roomId) {
+        if (roomId == null) {
+            return null;
+        }
+        RoomCatalogSnapshot.RoomPrice price = catalogSnapshot.isReady() ? catalogSnapshot.priceOf(roomId) : null;
+        if (price != null) {
+            return price;
+        }
+        // Snapshot still loading (or the room was created a moment ago): read the row
+        Room room = roomRepository.findById(roomId).orElse(null);
+        if (room == null || room.getType() == null) {
+            return null;
+        }
+        return new RoomCatalogSnapshot.RoomPrice(room.getType(),
+                room.getPricePerNight().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue());
+    }
+
+    private static void validate(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null) {
+            throw new RuntimeException("Check-in and check-out dates are required.");
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            throw new RuntimeException("Check-out date must be after check-in date.");
+        }
+    }
+}
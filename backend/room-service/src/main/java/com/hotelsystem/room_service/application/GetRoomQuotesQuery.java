@@ -0,0 +1,18 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Rate shopping: one stay priced across many rooms
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRoomQuotesQuery {
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private List<Long> roomIds;
+}
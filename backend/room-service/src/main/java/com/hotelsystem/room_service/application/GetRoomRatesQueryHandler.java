@@ -0,0 +1,24 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.application.dto.RoomRateDetails;
+import com.hotelsystem.room_service.repository.RoomRateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// All rate rules in ID order, the order in which newer rules override older ones
+@Service
+@RequiredArgsConstructor
+public class GetRoomRatesQueryHandler {
+    private final RoomRateRepository roomRateRepository;
+
+    @Transactional(readOnly = true)
+    public List<RoomRateDetails> handle() {
+        return roomRateRepository.findAllByOrderByIdAsc().stream()
+                .map(rate -> new RoomRateDetails(rate.getId(), rate.getRoomType(), rate.getStartDate(),
+                        rate.getEndDate(), rate.getDaysOfWeek(), rate.getPricePerNight()))
+                .toList();
+    }
+}
@@ -0,0 +1,16 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRoomSummariesQuery {
+    private GetAvailableRoomsQuery filter;
+    // id, roomNumber or pricePerNight; prefix with '-' for descending
+    private String sort;
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,169 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.application.dto.RoomPage;
+import com.hotelsystem.room_service.application.dto.RoomSummary;
+import com.hotelsystem.room_service.model.Room;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// Keyset-paginated room listing: each page seeks past the last (sort key, id) seen,
+// so the cost of a page does not depend on how deep into the catalog it is.
+@Service
+@RequiredArgsConstructor
+public class GetRoomSummariesQueryHandler {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+    // A date filter can reject most rows; it reads in larger chunks and stops after MAX_SCANNED rows,
+    // returning a short (even empty) page with the cursor where the scan stopped
+    private static final int SCAN_CHUNK = 200;
+    private static final int MAX_SCANNED = 1_000;
+
+    private final EntityManager entityManager;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final AmenityResolver amenityResolver;
+
+    @Transactional(readOnly = true)
+    public RoomPage handle(GetRoomSummariesQuery query) {
+        GetAvailableRoomsQuery filter = query.getFilter() != null ? query.getFilter() : new GetAvailableRoomsQuery();
+        boolean dateRange = filter.getCheckInDate() != null && filter.getCheckOutDate() != null;
+        if (dateRange && !filter.getCheckOutDate().isAfter(filter.getCheckInDate())) {
+            throw new RuntimeException("Check-out date must be after check-in date.");
+        }
+
+        SortKey sort = SortKey.parse(query.getSort());
+        int limit = query.getLimit() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(query.getLimit(), MAX_LIMIT));
+        Cursor cursor = Cursor.decode(query.getCursor(), sort);
+        AmenityFilter amenities = amenityResolver.filterFor(filter.getAmenities());
+
+        List<RoomSummary> items = new ArrayList<>(limit);
+        boolean hasMore = true;
+        int chunk = dateRange ? Math.max(limit, SCAN_CHUNK) : limit;
+        int scannedTotal = 0;
+        // Date-filtered pages can drop rows after the fetch; keep seeking until the page is full
+        while (items.size() < limit && hasMore && scannedTotal < MAX_SCANNED) {
+            List<RoomSummary> batch = fetch(filter, amenities, sort, cursor, chunk + 1);
+            int window = Math.min(batch.size(), chunk);
+            hasMore = batch.size() > chunk;
+            int scanned = 0;
+            while (scanned < window && items.size() < limit) {
+                RoomSummary summary = batch.get(scanned++);
+                cursor = new Cursor(sort.field, sort.valueOf(summary), summary.getId());
+                if (!dateRange || availabilityCalendar.isAvailable(summary.getId(), filter.getCheckInDate(),
+                        filter.getCheckOutDate())) {
+                    items.add(summary);
+                }
+            }
+            hasMore |= scanned < window;
+            scannedTotal += scanned;
+        }
+        return new RoomPage(items, hasMore ? cursor.encode() : null);
+    }
+
+    private List<RoomSummary> fetch(GetAvailableRoomsQuery filter, AmenityFilter amenities, SortKey sort, Cursor cursor,
+                                    int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RoomSummary> cq = cb.createQuery(RoomSummary.class);
+        Root<Room> room = cq.from(Room.class);
+        cq.select(cb.construct(RoomSummary.class, room.get("id"), room.get("roomNumber"), room.get("type"),
+                room.get("status"), room.get("viewType"), room.get("pricePerNight"), room.get("maxGuests"),
+                room.get("bedCount")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filters = GetAvailableRoomsQueryHandler.toSpecification(filter, amenities).toPredicate(room, cq, cb);
+        if (filters != null) {
+            predicates.add(filters);
+        }
+        Path<Long> id = room.get("id");
+        if (cursor != null) {
+            predicates.add(sort.after(cb, room, id, cursor));
+        }
+        cq.where(predicates.toArray(new Predicate[0]));
+
+        if (sort.field.equals("id")) {
+            cq.orderBy(sort.descending ? cb.desc(id) : cb.asc(id));
+        } else {
+            Path<?> key = room.get(sort.field);
+            cq.orderBy(sort.descending ? cb.desc(key) : cb.asc(key), sort.descending ? cb.desc(id) : cb.asc(id));
+        }
+        return entityManager.createQuery(cq).setMaxResults(maxResults).getResultList();
+    }
+
+    private record SortKey(String field, boolean descending) {
+
+        static SortKey parse(String sort) {
+            if (sort == null || sort.isBlank()) {
+                return new SortKey("id", false);
+            }
+            boolean descending = sort.startsWith("-");
+            String field = descending ? sort.substring(1) : sort;
+            if (!field.equals("id") && !field.equals("roomNumber") && !field.equals("pricePerNight")) {
+                throw new RuntimeException("Unsupported sort field: " + field);
+            }
+            return new SortKey(field, descending);
+        }
+
+        String valueOf(RoomSummary summary) {
+            return switch (field) {
+                case "roomNumber" -> summary.getRoomNumber();
+                case "pricePerNight" -> summary.getPricePerNight().toPlainString();
+                default -> String.valueOf(summary.getId());
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        Predicate after(CriteriaBuilder cb, Root<Room> room, Path<Long> id, Cursor cursor) {
+            if (field.equals("id")) {
+                return descending ? cb.lessThan(id, cursor.id) : cb.greaterThan(id, cursor.id);
+            }
+            Comparable<Object> value = field.equals("pricePerNight")
+                    ? (Comparable<Object>) (Comparable<?>) new BigDecimal(cursor.value)
+                    : (Comparable<Object>) (Comparable<?>) cursor.value;
+            Path<Comparable<Object>> key = room.get(field);
+            Predicate beyond = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+            Predicate tieBreak = cb.and(cb.equal(key, value),
+                    descending ? cb.lessThan(id, cursor.id) : cb.greaterThan(id, cursor.id));
+            return cb.or(beyond, tieBreak);
+        }
+    }
+
+    private record Cursor(String field, String value, Long id) {
+
+        static Cursor decode(String encoded, SortKey sort) {
+            if (encoded == null || encoded.isBlank()) {
+                return null;
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+                int colon = decoded.indexOf(':');
+                int separator = decoded.lastIndexOf('|');
+                String field = decoded.substring(0, colon);
+                if (!field.equals(sort.field)) {
+                    throw new IllegalArgumentException("cursor was issued for sort " + field);
+                }
+                return new Cursor(field, decoded.substring(colon + 1, separator),
+                        Long.valueOf(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor: " + e.getMessage());
+            }
+        }
+
+        String encode() {
+            String raw = field + ":" + value + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.InputStream;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRoomsCommand {
+    // JSON array of CreateRoomCommand objects, or CSV with a header row
+    private InputStream content;
+    private boolean csv;
+}
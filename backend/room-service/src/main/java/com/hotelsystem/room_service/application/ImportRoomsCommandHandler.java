@@ -0,0 +1,328 @@
+package com.hotelsystem.room_service.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsystem.room_service.application.dto.RoomImportError;
+import com.hotelsystem.room_service.application.dto.RoomImportResult;
+import com.hotelsystem.room_service.event.RoomChangedEvent;
+import com.hotelsystem.room_service.model.BedType;
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomStatus;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.model.RoomView;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Bulk version of CreateRoomCommandHandler. Rows are read one at a time and written in chunks:
+// one IN query checks a chunk's room numbers, one transaction inserts it in JDBC batches.
+// A bad row is reported and skipped; it never fails the rows around it.
+@Service
+public class ImportRoomsCommandHandler {
+
+    private final RoomRepository roomRepository;
+    private final AmenityResolver amenityResolver;
+    private final RoomImageStore imageStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ImportRoomsCommandHandler(RoomRepository roomRepository, AmenityResolver amenityResolver,
+                                     RoomImageStore imageStore, ApplicationEventPublisher eventPublisher,
+                                     TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                     @Value("${room.import.chunk-size:500}") int chunkSize) {
+        this.roomRepository = roomRepository;
+        this.amenityResolver = amenityResolver;
+        this.imageStore = imageStore;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public RoomImportResult handle(ImportRoomsCommand command) {
+        RoomImportResult result = new RoomImportResult();
+        Set<String> seenRoomNumbers = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try (RowReader reader = command.isCsv() ? new CsvRowReader(command) : new JsonRowReader(command)) {
+            Row row;
+            try {
+                while ((row = reader.next()) != null) {
+                    result.setReceived(result.getReceived() + 1);
+                    String error = row.error != null ? row.error : validate(row.command, seenRoomNumbers);
+                    if (error != null) {
+                        result.getErrors().add(new RoomImportError(row.number, roomNumberOf(row), error));
+                        continue;
+                    }
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        importChunk(chunk, result);
+                        chunk.clear();
+                    }
+                }
+            } catch (IOException e) {
+                // Earlier chunks are committed already; report where reading stopped and keep what was read
+                result.getErrors().add(new RoomImportError(result.getReceived() + 1, null,
+                        "Could not read the rest of the import: " + e.getMessage().lines().findFirst().orElse("")));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read import: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void importChunk(List<Row> chunk, RoomImportResult result) {
+        List<String> roomNumbers = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            roomNumbers.add(row.command.getRoomNumber());
+        }
+        Set<String> existing = new HashSet<>(roomRepository.findExistingRoomNumbers(roomNumbers));
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.command.getRoomNumber())) {
+                result.getErrors().add(new RoomImportError(row.number, row.command.getRoomNumber(),
+                        "Room with number " + row.command.getRoomNumber() + " already exists."));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Resolved once for the whole chunk, before any room is pending, so the lookup
+                // neither flushes half-built rooms nor breaks up their insert batches
+                List<List<String>> amenityNames = new ArrayList<>(accepted.size());
+                for (Row row : accepted) {
+                    amenityNames.add(row.command.getAmenities());
+                }
+                List<ResolvedAmenities> amenities = amenityResolver.resolveAll(amenityNames);
+                List<Room> rooms = new ArrayList<>(accepted.size());
+                for (int i = 0; i < accepted.size(); i++) {
+                    rooms.add(toRoom(accepted.get(i).command, amenities.get(i)));
+                }
+                for (Room room : roomRepository.saveAll(rooms)) {
+                    eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), room));
+                }
+            });
+            result.setImported(result.getImported() + accepted.size());
+        } catch (RuntimeException e) {
+            // Typically a room number created concurrently; the whole chunk rolled back
+            String message = "Rows " + accepted.get(0).number + "-" + accepted.get(accepted.size() - 1).number
+                    + " were not imported: " + e.getMessage();
+            for (Row row : accepted) {
+                result.getErrors().add(new RoomImportError(row.number, row.command.getRoomNumber(), message));
+            }
+        }
+    }
+
+    private Room toRoom(CreateRoomCommand command, ResolvedAmenities amenities) {
+        Room room = new Room();
+        room.setRoomNumber(command.getRoomNumber());
+        room.setType(command.getType());
+        room.setPricePerNight(command.getPricePerNight());
+        room.setStatus(RoomStatus.AVAILABLE);
+        room.setDescription(command.getDescription());
+        room.setImageUrl(imageStore.toReference(command.getImageUrl()));
+        room.setViewType(command.getViewType());
+        room.setMaxGuests(command.getMaxGuests());
+        room.setBedCount(command.getBedCount());
+        room.setAmenityMask(amenities.mask());
+        if (command.getAmenities() != null) {
+            room.setAmenities(amenities.amenities());
+        }
+        return room;
+    }
+
+    private static String validate(CreateRoomCommand command, Set<String> seenRoomNumbers) {
+        if (command.getRoomNumber() == null || command.getRoomNumber().isBlank()) {
+            return "Room number is required.";
+        }
+        if (command.getType() == null) {
+            return "Room type is required.";
+        }
+        if (command.getPricePerNight() == null || command.getPricePerNight().signum() <= 0) {
+            return "Price per night must be positive.";
+        }
+        if (!seenRoomNumbers.add(command.getRoomNumber())) {
+            return "Room number " + command.getRoomNumber() + " appears more than once in the import.";
+        }
+        return null;
+    }
+
+    private static String roomNumberOf(Row row) {
+        return row.command == null ? null : row.command.getRoomNumber();
+    }
+
+    private record Row(int number, CreateRoomCommand command, String error) {
+    }
+
+    private interface RowReader extends AutoCloseable {
+        // Null at the end of the input
+        Row next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // Walks the top-level array token by token; only one element is held in memory at a time
+    private final class JsonRowReader implements RowReader {
+        private final JsonParser parser;
+        private int number;
+
+        JsonRowReader(ImportRoomsCommand command) throws IOException {
+            parser = objectMapper.getFactory().createParser(command.getContent());
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IOException("expected a JSON array of rooms");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            number++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new Row(number, null, "Invalid room: expected a JSON object");
+            }
+            JsonNode node = parser.readValueAsTree();
+            try {
+                return new Row(number, objectMapper.treeToValue(node, CreateRoomCommand.class), null);
+            } catch (IOException | IllegalArgumentException e) {
+                CreateRoomCommand partial = new CreateRoomCommand();
+                partial.setRoomNumber(node.path("roomNumber").asText(null));
+                return new Row(number, partial, "Invalid room: " + e.getMessage().lines().findFirst().orElse(""));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    // Header row names the CreateRoomCommand fields; amenities are separated by '|'
+    private static final class CsvRowReader implements RowReader {
+        private static final Set<String> COLUMNS = Set.of("roomNumber", "type", "pricePerNight", "description",
+                "imageUrl", "amenities", "viewType", "maxGuests", "bedCount", "bedType");
+
+        private final BufferedReader reader;
+        private final List<String> header;
+        private int number;
+
+        CsvRowReader(ImportRoomsCommand command) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(command.getContent(), StandardCharsets.UTF_8));
+            String line = reader.readLine();
+            if (line == null) {
+                reader.close();
+                throw new IOException("missing CSV header");
+            }
+            String headerLine = line.startsWith("\uFEFF") ? line.substring(1) : line;
+            header = parseLine(headerLine).stream().map(String::trim).toList();
+            for (String column : header) {
+                if (!COLUMNS.contains(column)) {
+                    reader.close();
+                    throw new IOException("unknown CSV column " + column);
+                }
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            number++;
+            List<String> values = parseLine(line);
+            CreateRoomCommand command = new CreateRoomCommand();
+            try {
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    set(command, header.get(i), values.get(i).trim());
+                }
+                return new Row(number, command, null);
+            } catch (IllegalArgumentException e) {
+                return new Row(number, command, "Invalid room: " + e.getMessage());
+            }
+        }
+
+        private static void set(CreateRoomCommand command, String field, String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+            switch (field) {
+                case "roomNumber" -> command.setRoomNumber(value);
+                case "type" -> command.setType(RoomType.valueOf(value.toUpperCase()));
+                case "pricePerNight" -> command.setPricePerNight(new BigDecimal(value));
+                case "description" -> command.setDescription(value);
+                case "imageUrl" -> command.setImageUrl(value);
+                case "amenities" -> command.setAmenities(List.of(value.split("\\|")));
+                case "viewType" -> command.setViewType(RoomView.valueOf(value.toUpperCase()));
+                case "maxGuests" -> command.setMaxGuests(Integer.valueOf(value));
+                case "bedCount" -> command.setBedCount(Integer.valueOf(value));
+                case "bedType" -> command.setBedType(BedType.valueOf(value.toUpperCase()));
+                default -> {
+                }
+            }
+        }
+
+        // RFC 4180 fields on a single line: commas inside quotes, "" for a literal quote
+        private static List<String> parseLine(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkRoomCleanedCommand {
+    private Long roomId;
+    private String cleanedBy;
+}
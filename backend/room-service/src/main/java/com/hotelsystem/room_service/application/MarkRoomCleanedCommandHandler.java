@@ -0,0 +1,39 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomChangedEvent;
+import com.hotelsystem.room_service.event.RoomCleanedEvent;
+import com.hotelsystem.room_service.event.RoomStatusChangedEvent;
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomStatus;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Housekeeping sign-off: a room out for maintenance goes back on sale; an occupied room stays occupied
+@Service
+@RequiredArgsConstructor
+public class MarkRoomCleanedCommandHandler {
+
+    private final RoomRepository roomRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void handle(MarkRoomCleanedCommand command) {
+        Room room = roomRepository.findById(command.getRoomId())
+                .orElseThrow(() -> new RuntimeException("Room not found"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (room.getStatus() == RoomStatus.MAINTENANCE) {
+            room.setStatus(RoomStatus.AVAILABLE);
+            roomRepository.save(room);
+            eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), room));
+            eventPublisher.publishEvent(new RoomStatusChangedEvent(room.getId(), RoomStatus.MAINTENANCE,
+                    RoomStatus.AVAILABLE, now));
+        }
+        eventPublisher.publishEvent(new RoomCleanedEvent(room.getId(), command.getCleanedBy(), now));
+    }
+}
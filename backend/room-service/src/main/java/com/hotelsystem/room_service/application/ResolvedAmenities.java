@@ -0,0 +1,8 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.Amenity;
+
+import java.util.List;
+
+public record ResolvedAmenities(List<Amenity> amenities, long mask) {
+}
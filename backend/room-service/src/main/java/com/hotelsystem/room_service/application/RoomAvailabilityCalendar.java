@@ -0,0 +1,152 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.RoomOccupancy;
+import com.hotelsystem.room_service.repository.RoomOccupancyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory occupancy calendar: one bitset per room, one bit per night (epoch day).
+// Readers never lock; each room publishes an immutable bitset that writers replace wholesale.
+@Component
+@RequiredArgsConstructor
+public class RoomAvailabilityCalendar {
+
+    private final RoomOccupancyRepository roomOccupancyRepository;
+    private final RoomCatalogVersion catalogVersion;
+
+    private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<Long, Long> roomByBooking = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        for (RoomOccupancy occupancy : roomOccupancyRepository.findAll()) {
+            reserve(occupancy.getBookingId(), occupancy.getRoomId(), occupancy.getCheckInDate(),
+                    occupancy.getCheckOutDate());
+        }
+    }
+
+    // True when none of the nights in [checkIn, checkOut) are held on the room
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar == null || calendar.nights.isFree(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    // IDs of rooms holding at least one night in [checkIn, checkOut)
+    public long[] busyRooms(LocalDate checkIn, LocalDate checkOut) {
+        long fromDay = checkIn.toEpochDay();
+        long toDay = checkOut.toEpochDay();
+        long[] busy = new long[16];
+        int count = 0;
+        for (Map.Entry<Long, RoomCalendar> entry : calendars.entrySet()) {
+            if (!entry.getValue().nights.isFree(fromDay, toDay)) {
+                if (count == busy.length) {
+                    busy = Arrays.copyOf(busy, count * 2);
+                }
+                busy[count++] = entry.getKey();
+            }
+        }
+        return Arrays.copyOf(busy, count);
+    }
+
+    public void reserve(Long bookingId, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        Long previousRoomId = roomByBooking.put(bookingId, roomId);
+        if (previousRoomId != null && !previousRoomId.equals(roomId)) {
+            calendarFor(previousRoomId).remove(bookingId);
+        }
+        calendarFor(roomId).put(bookingId, checkIn.toEpochDay(), checkOut.toEpochDay());
+        catalogVersion.bump();
+    }
+
+    public void release(Long bookingId) {
+        Long roomId = roomByBooking.remove(bookingId);
+        if (roomId != null) {
+            calendarFor(roomId).remove(bookingId);
+            catalogVersion.bump();
+        }
+    }
+
+    private RoomCalendar calendarFor(Long roomId) {
+        return calendars.computeIfAbsent(roomId, id -> new RoomCalendar());
+    }
+
+    private static final class RoomCalendar {
+        // bookingId -> {first night, check-out day}; kept so a release never clears another booking's nights
+        private final Map<Long, long[]> stays = new HashMap<>();
+        private volatile NightBits nights = NightBits.EMPTY;
+
+        synchronized void put(Long bookingId, long fromDay, long toDay) {
+            stays.put(bookingId, new long[]{fromDay, toDay});
+            nights = NightBits.of(stays);
+        }
+
+        synchronized void remove(Long bookingId) {
+            if (stays.remove(bookingId) != null) {
+                nights = NightBits.of(stays);
+            }
+        }
+    }
+
+    // Immutable bitset of held nights, starting at a 64-aligned epoch day
+    static final class NightBits {
+        static final NightBits EMPTY = new NightBits(0, new long[0]);
+
+        private final long baseDay;
+        private final long[] words;
+
+        private NightBits(long baseDay, long[] words) {
+            this.baseDay = baseDay;
+            this.words = words;
+        }
+
+        static NightBits of(Map<Long, long[]> stays) {
+            if (stays.isEmpty()) {
+                return EMPTY;
+            }
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long[] stay : stays.values()) {
+                min = Math.min(min, stay[0]);
+                max = Math.max(max, stay[1]);
+            }
+            long baseDay = Math.floorDiv(min, 64) * 64;
+            long[] words = new long[(int) ((max - baseDay + 63) / 64)];
+            for (long[] stay : stays.values()) {
+                for (long day = stay[0]; day < stay[1]; day++) {
+                    int bit = (int) (day - baseDay);
+                    words[bit >>> 6] |= 1L << bit;
+                }
+            }
+            return new NightBits(baseDay, words);
+        }
+
+        boolean isFree(long fromDay, long toDay) {
+            long from = Math.max(fromDay - baseDay, 0);
+            long to = Math.min(toDay - baseDay, (long) words.length * 64);
+            if (from >= to) {
+                return true;
+            }
+            int firstWord = (int) (from >>> 6);
+            int lastWord = (int) ((to - 1) >>> 6);
+            for (int w = firstWord; w <= lastWord; w++) {
+                long mask = -1L;
+                if (w == firstWord) {
+                    mask &= -1L << (from & 63);
+                }
+                if (w == lastWord) {
+                    mask &= -1L >>> (63 - ((to - 1) & 63));
+                }
+                if ((words[w] & mask) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomChangedEvent;
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomStatus;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.model.RoomView;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Read model of the room catalog held as primitive columns, one slot per room.
+// Enum filters are answered from per-value bitmaps; ranges are scanned over the surviving bits only.
+@Component
+@RequiredArgsConstructor
+public class RoomCatalogSnapshot {
+
+    private static final byte NONE = -1;
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final RoomRepository roomRepository;
+    private final RoomCatalogVersion catalogVersion;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private volatile boolean ready;
+
+    private int capacity;
+    private int highWater;
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+
+    private long[] ids;
+    private long[] priceCents;
+    private byte[] types;
+    private byte[] statuses;
+    private byte[] views;
+    private int[] maxGuests;
+    private int[] bedCounts;
+    private long[] amenityMasks;
+
+    private long[] live;
+    private long[][] typeBitmaps;
+    private long[][] statusBitmaps;
+    private long[][] viewBitmaps;
+
+    {
+        reset(64);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Loaded once seeding has run; until then searches use the database path
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            reset(Math.max(64, (int) roomRepository.count()));
+            for (Object[] row : roomRepository.findCatalogColumns()) {
+                put((Long) row[0], (RoomType) row[1], (RoomStatus) row[2], (RoomView) row[3],
+                        (BigDecimal) row[4], (Integer) row[5], (Integer) row[6], (Long) row[7]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        catalogVersion.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(RoomChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Room room = event.getRoom();
+            if (room == null) {
+                remove(event.getRoomId());
+            } else {
+                put(room.getId(), room.getType(), room.getStatus(), room.getViewType(), room.getPricePerNight(),
+                        room.getMaxGuests(), room.getBedCount(), room.getAmenityMask());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        catalogVersion.bump();
+    }
+
+    // IDs of live rooms matching every static filter of the query, in slot order
+    public long[] search(GetAvailableRoomsQuery query) {
+        return search(query, 0L);
+    }
+
+    // As above, and also holding every amenity bit of requiredAmenities
+    public long[] search(GetAvailableRoomsQuery query, long requiredAmenities) {
+        long minCents = query.getMinPrice() == null ? Long.MIN_VALUE : toCents(query.getMinPrice(), RoundingMode.CEILING);
+        long maxCents = query.getMaxPrice() == null ? Long.MAX_VALUE : toCents(query.getMaxPrice(), RoundingMode.FLOOR);
+        int minGuests = query.getMaxGuests() == null ? UNKNOWN : query.getMaxGuests();
+        int minBeds = query.getBedCount() == null ? UNKNOWN : query.getBedCount();
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = Arrays.copyOf(live, live.length);
+            if (query.getType() != null) {
+                and(candidates, typeBitmaps[query.getType().ordinal()]);
+            }
+            if (query.getStatus() != null) {
+                and(candidates, statusBitmaps[query.getStatus().ordinal()]);
+            }
+            if (query.getViewType() != null) {
+                and(candidates, viewBitmaps[query.getViewType().ordinal()]);
+            }
+
+            long[] matches = new long[Math.min(cardinality(candidates), highWater)];
+            int count = 0;
+            for (int w = 0; w < candidates.length; w++) {
+                long word = candidates[w];
+                while (word != 0) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (priceCents[slot] >= minCents && priceCents[slot] <= maxCents
+                            && (minGuests == UNKNOWN || maxGuests[slot] >= minGuests)
+                            && (minBeds == UNKNOWN || bedCounts[slot] >= minBeds)
+                            && (amenityMasks[slot] & requiredAmenities) == requiredAmenities) {
+                        matches[count++] = ids[slot];
+                    }
+                }
+            }
+            return count == matches.length ? matches : Arrays.copyOf(matches, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Facet histograms for the query in one pass over the surviving slots. Each facet is counted with
+    // every filter applied except its own (so picking a type still shows the other types' counts):
+    // a row failing no faceted filter counts everywhere, a row failing exactly one counts only there.
+    // Status, bed count, amenities, allowedIds and excludedIds are plain filters; allowedIds is null
+    // for "no restriction". priceBandCents are ascending band lower bounds after the first band.
+    public Facets facets(GetAvailableRoomsQuery query, long requiredAmenities, Collection<Long> allowedIds,
+                         long[] excludedIds, long[] priceBandCents, int maxGuestBucket) {
+        long minCents = query.getMinPrice() == null ? Long.MIN_VALUE : toCents(query.getMinPrice(), RoundingMode.CEILING);
+        long maxCents = query.getMaxPrice() == null ? Long.MAX_VALUE : toCents(query.getMaxPrice(), RoundingMode.FLOOR);
+        int minGuests = query.getMaxGuests() == null ? UNKNOWN : query.getMaxGuests();
+        int minBeds = query.getBedCount() == null ? UNKNOWN : query.getBedCount();
+        byte type = query.getType() == null ? NONE : (byte) query.getType().ordinal();
+        byte view = query.getViewType() == null ? NONE : (byte) query.getViewType().ordinal();
+
+        Facets facets = new Facets(new int[ROOM_TYPES.length], new int[RoomView.values().length],
+                new int[priceBandCents.length + 1], new int[maxGuestBucket + 1]);
+        lock.readLock().lock();
+        try {
+            long[] candidates = Arrays.copyOf(live, live.length);
+            if (query.getStatus() != null) {
+                and(candidates, statusBitmaps[query.getStatus().ordinal()]);
+            }
+            if (allowedIds != null) {
+                long[] allowed = new long[candidates.length];
+                for (Long id : allowedIds) {
+                    Integer slot = slotById.get(id);
+                    if (slot != null) {
+                        set(allowed, slot);
+                    }
+                }
+                and(candidates, allowed);
+            }
+            for (long id : excludedIds) {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    clear(candidates, slot);
+                }
+            }
+
+            for (int w = 0; w < candidates.length; w++) {
+                long word = candidates[w];
+                while (word != 0) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if ((minBeds != UNKNOWN && bedCounts[slot] < minBeds)
+                            || (amenityMasks[slot] & requiredAmenities) != requiredAmenities) {
+                        continue;
+                    }
+                    boolean typeOk = type == NONE || types[slot] == type;
+                    boolean viewOk = view == NONE || views[slot] == view;
+                    boolean priceOk = priceCents[slot] >= minCents && priceCents[slot] <= maxCents;
+                    boolean guestsOk = minGuests == UNKNOWN || maxGuests[slot] >= minGuests;
+                    int failed = (typeOk ? 0 : 1) + (viewOk ? 0 : 1) + (priceOk ? 0 : 1) + (guestsOk ? 0 : 1);
+                    if (failed > 1) {
+                        continue;
+                    }
+                    if (failed == 0) {
+                        facets.total++;
+                    }
+                    if (!typeOk || failed == 0) {
+                        if (types[slot] != NONE) facets.types[types[slot]]++;
+                    }
+                    if (!viewOk || failed == 0) {
+                        if (views[slot] != NONE) facets.views[views[slot]]++;
+                    }
+                    if (!priceOk || failed == 0) {
+                        if (priceCents[slot] != Long.MIN_VALUE) {
+                            facets.priceBands[band(priceBandCents, priceCents[slot])]++;
+                        }
+                    }
+                    if (!guestsOk || failed == 0) {
+                        if (maxGuests[slot] != UNKNOWN) {
+                            facets.guests[Math.max(0, Math.min(maxGuests[slot], maxGuestBucket))]++;
+                        }
+                    }
+                }
+            }
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Index of the band holding cents: 0 below the first bound, i after bound i - 1
+    private static int band(long[] bounds, long cents) {
+        int index = Arrays.binarySearch(bounds, cents);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // Counts indexed by enum ordinal, price band and guest capacity (capped at the last bucket)
+    public static final class Facets {
+        private int total;
+        private final int[] types;
+        private final int[] views;
+        private final int[] priceBands;
+        private final int[] guests;
+
+        Facets(int[] types, int[] views, int[] priceBands, int[] guests) {
+            this.types = types;
+            this.views = views;
+            this.priceBands = priceBands;
+            this.guests = guests;
+        }
+
+        public int total() {
+            return total;
+        }
+
+        public int[] types() {
+            return types;
+        }
+
+        public int[] views() {
+            return views;
+        }
+
+        public int[] priceBands() {
+            return priceBands;
+        }
+
+        public int[] guests() {
+            return guests;
+        }
+    }
+
+    // Type and nightly price of a live room without touching the database; null when unknown
+    public RoomPrice priceOf(long roomId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(roomId);
+            if (slot == null || types[slot] == NONE || priceCents[slot] == Long.MIN_VALUE) {
+                return null;
+            }
+            return new RoomPrice(ROOM_TYPES[types[slot]], priceCents[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record RoomPrice(RoomType type, long priceCents) {
+    }
+
+    private void put(Long id, RoomType type, RoomStatus status, RoomView view, BigDecimal price,
+                     Integer guests, Integer beds, Long amenityMask) {
+        Integer existing = slotById.get(id);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            clearBitmaps(slot);
+        } else {
+            slot = allocateSlot();
+            slotById.put(id, slot);
+            ids[slot] = id;
+            set(live, slot);
+        }
+
+        types[slot] = type == null ? NONE : (byte) type.ordinal();
+        statuses[slot] = status == null ? NONE : (byte) status.ordinal();
+        views[slot] = view == null ? NONE : (byte) view.ordinal();
+        priceCents[slot] = price == null ? Long.MIN_VALUE : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+        maxGuests[slot] = guests == null ? UNKNOWN : guests;
+        bedCounts[slot] = beds == null ? UNKNOWN : beds;
+        amenityMasks[slot] = amenityMask == null ? 0L : amenityMask;
+
+        if (types[slot] != NONE) set(typeBitmaps[types[slot]], slot);
+        if (statuses[slot] != NONE) set(statusBitmaps[statuses[slot]], slot);
+        if (views[slot] != NONE) set(viewBitmaps[views[slot]], slot);
+    }
+
+    private void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        clearBitmaps(slot);
+        clear(live, slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeCount * 2));
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void clearBitmaps(int slot) {
+        if (types[slot] != NONE) clear(typeBitmaps[types[slot]], slot);
+        if (statuses[slot] != NONE) clear(statusBitmaps[statuses[slot]], slot);
+        if (views[slot] != NONE) clear(viewBitmaps[views[slot]], slot);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == capacity) {
+            grow(capacity * 2);
+        }
+        return highWater++;
+    }
+
+    private void reset(int initialCapacity) {
+        slotById.clear();
+        highWater = 0;
+        freeCount = 0;
+        capacity = 0;
+        ids = new long[0];
+        priceCents = new long[0];
+        types = new byte[0];
+        statuses = new byte[0];
+        views = new byte[0];
+        maxGuests = new int[0];
+        bedCounts = new int[0];
+        amenityMasks = new long[0];
+        live = new long[0];
+        typeBitmaps = new long[RoomType.values().length][0];
+        statusBitmaps = new long[RoomStatus.values().length][0];
+        viewBitmaps = new long[RoomView.values().length][0];
+        grow(initialCapacity);
+    }
+
+    private void grow(int newCapacity) {
+        capacity = newCapacity;
+        ids = Arrays.copyOf(ids, newCapacity);
+        priceCents = Arrays.copyOf(priceCents, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        views = Arrays.copyOf(views, newCapacity);
+        maxGuests = Arrays.copyOf(maxGuests, newCapacity);
+        bedCounts = Arrays.copyOf(bedCounts, newCapacity);
+        amenityMasks = Arrays.copyOf(amenityMasks, newCapacity);
+
+        int words = (newCapacity + 63) >>> 6;
+        live = Arrays.copyOf(live, words);
+        growAll(typeBitmaps, words);
+        growAll(statusBitmaps, words);
+        growAll(viewBitmaps, words);
+    }
+
+    private static void growAll(long[][] bitmaps, int words) {
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = Arrays.copyOf(bitmaps[i], words);
+        }
+    }
+
+    private static long toCents(Double price, RoundingMode mode) {
+        return BigDecimal.valueOf(price).movePointRight(2).setScale(0, mode).longValue();
+    }
+
+    private static void and(long[] target, long[] bitmap) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= bitmap[i];
+        }
+    }
+
+    private static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static void set(long[] bitmap, int slot) {
+        bitmap[slot >>> 6] |= 1L << slot;
+    }
+
+    private static void clear(long[] bitmap, int slot) {
+        bitmap[slot >>> 6] &= ~(1L << slot);
+    }
+}
@@ -0,0 +1,24 @@
+package com.hotelsystem.room_service.application;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Changes whenever anything a room list could show changes: a room row (via the catalog snapshot)
+// or a stay on the availability calendar. Holders of derived state bump it after applying a change,
+// so a list read under version v never reflects less than v.
+@Component
+public class RoomCatalogVersion {
+
+    // Counter restarts with the process; the epoch keeps tags from before a restart from matching
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    public String current() {
+        return epoch + "-" + version.get();
+    }
+}
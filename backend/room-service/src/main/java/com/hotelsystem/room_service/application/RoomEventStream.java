@@ -0,0 +1,259 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomCleanedEvent;
+import com.hotelsystem.room_service.event.RoomStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fans committed room status / cleaning events out to Server-Sent Events subscribers.
+// Recent events stay in a ring buffer so a reconnecting client can resume from Last-Event-ID.
+// Every subscriber has a bounded queue that keeps only the latest event per room and kind; when
+// a slow client still falls too far behind its queue is dropped and it is told to resync.
+@Component
+public class RoomEventStream {
+
+    static final String STATUS_CHANGED = "room-status-changed";
+    static final String CLEANED = "room-cleaned";
+    static final String RESYNC = "resync";
+
+    // Event IDs are "<epoch>-<sequence>"; an ID from before a restart cannot be resumed
+    private final long epoch = System.currentTimeMillis();
+    private final Entry[] ring;
+    private final int subscriberBuffer;
+    private final long emitterTimeoutMillis;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+
+    private final Lock lock = new ReentrantLock();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long lastSequence;
+
+    @Autowired
+    public RoomEventStream(@Value("${room.events.replay-size:1024}") int replaySize,
+                           @Value("${room.events.subscriber-buffer:256}") int subscriberBuffer,
+                           @Value("${room.events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                           @Value("${room.events.sender-threads:4}") int senderThreads) {
+        this(replaySize, subscriberBuffer, emitterTimeoutMillis, Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "room-events-sender");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        heartbeat.scheduleAtFixedRate(this::heartbeat, 20, 20, TimeUnit.SECONDS);
+    }
+
+    RoomEventStream(int replaySize, int subscriberBuffer, long emitterTimeoutMillis, ExecutorService sender) {
+        this.ring = new Entry[replaySize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.sender = sender;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "room-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Replay and registration happen under the publish lock so no event falls in between
+        lock.lock();
+        try {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(RoomStatusChangedEvent event) {
+        publish(STATUS_CHANGED, event.getRoomId(), event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(RoomCleanedEvent event) {
+        publish(CLEANED, event.getRoomId(), event);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void close() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private void publish(String name, Long roomId, Object payload) {
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            Entry entry = new Entry(sequence, epoch + "-" + sequence, name, name + ":" + roomId, payload);
+            ring[(int) (sequence % ring.length)] = entry;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long after = -1;
+        int dash = lastEventId.indexOf('-');
+        try {
+            if (dash > 0 && Long.parseLong(lastEventId.substring(0, dash)) == epoch) {
+                after = Long.parseLong(lastEventId.substring(dash + 1));
+            }
+        } catch (NumberFormatException ignored) {
+            // Treated like an ID from another epoch
+        }
+        long oldest = Math.max(1, lastSequence - ring.length + 1);
+        if (after < oldest - 1 || after > lastSequence) {
+            subscriber.offer(Entry.resync(epoch + "-" + lastSequence));
+            return;
+        }
+        for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+            subscriber.offer(ring[(int) (sequence % ring.length)]);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(Entry.HEARTBEAT);
+        }
+    }
+
+    private record Entry(long sequence, String id, String name, String key, Object payload) {
+        static final Entry HEARTBEAT = new Entry(0, null, null, "heartbeat", null);
+
+        // Carries the ID of the newest event the client's reload will already reflect
+        static Entry resync(String id) {
+            return new Entry(0, id, RoomEventStream.RESYNC, RoomEventStream.RESYNC, null);
+        }
+
+        // A newer event for the same room replaces the queued one; a status change keeps the oldest "from"
+        Entry mergeInto(Entry queued) {
+            if (payload instanceof RoomStatusChangedEvent latest
+                    && queued.payload instanceof RoomStatusChangedEvent first) {
+                return new Entry(sequence, id, name, key, new RoomStatusChangedEvent(latest.getRoomId(),
+                        first.getOldStatus(), latest.getNewStatus(), latest.getTimestamp()));
+            }
+            return this;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Lock queueLock = new ReentrantLock();
+        // Keyed by event kind and room, in order of the latest event for each key
+        private final Map<String, Entry> pending = new LinkedHashMap<>();
+        private Entry resync;
+        private boolean draining;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Entry entry) {
+            queueLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                Entry queued = pending.remove(entry.key);
+                pending.put(entry.key, queued == null ? entry : entry.mergeInto(queued));
+                if (pending.size() > subscriberBuffer) {
+                    // Too far behind to catch up event by event; the client reloads its state instead
+                    pending.clear();
+                    resync = Entry.resync(entry.id);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            } finally {
+                queueLock.unlock();
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Entry next;
+                queueLock.lock();
+                try {
+                    if (resync != null) {
+                        next = resync;
+                        resync = null;
+                    } else {
+                        Iterator<Entry> iterator = pending.values().iterator();
+                        if (!iterator.hasNext()) {
+                            draining = false;
+                            return;
+                        }
+                        next = iterator.next();
+                        iterator.remove();
+                    }
+                } finally {
+                    queueLock.unlock();
+                }
+                try {
+                    send(next);
+                } catch (IOException | IllegalStateException e) {
+                    closed = true;
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        private void send(Entry entry) throws IOException {
+            if (entry == Entry.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                return;
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(entry.name);
+            if (entry.id != null) {
+                event.id(entry.id);
+            }
+            emitter.send(event.data(entry.payload == null ? "" : entry.payload));
+        }
+    }
+}
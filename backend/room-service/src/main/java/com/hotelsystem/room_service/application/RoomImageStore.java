@@ -0,0 +1,94 @@
+package com.hotelsystem.room_service.application;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Content-addressed image files on local disk: an image is stored once under the SHA-256 of its bytes,
+// so the same upload always yields the same reference and a stored file never changes.
+@Component
+public class RoomImageStore {
+
+    public static final String URL_PREFIX = "/api/rooms/images/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public RoomImageStore(@Value("${room.images.dir:./data/images}") String directory) {
+        this.root = Path.of(directory).toAbsolutePath();
+    }
+
+    public String store(InputStream content) {
+        try {
+            Files.createDirectories(root);
+            Path temp = Files.createTempFile(root, "upload-", ".tmp");
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(content, digest)) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                String hash = HexFormat.of().formatHex(digest.digest());
+                Path target = pathOf(hash);
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // A concurrent upload of the same bytes won the race; the content is identical
+                    }
+                }
+                return hash;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Moves an inline data: URL into the store and returns its reference; any other value is kept as is
+    public String toReference(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith("data:")) {
+            return imageUrl;
+        }
+        int comma = imageUrl.indexOf(',');
+        if (comma < 0 || !imageUrl.substring(0, comma).endsWith(";base64")) {
+            throw new RuntimeException("Only base64 data URLs are supported for inline images.");
+        }
+        byte[] bytes = Base64.getMimeDecoder().decode(imageUrl.substring(comma + 1));
+        return URL_PREFIX + store(new ByteArrayInputStream(bytes));
+    }
+
+    public Path resolve(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new RuntimeException("Image not found: " + hash);
+        }
+        Path file = pathOf(hash);
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Image not found: " + hash);
+        }
+        return file;
+    }
+
+    // Two-character fan-out keeps directories small
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.application.dto.RoomPriceChanges;
+import com.hotelsystem.room_service.event.RoomChangedEvent;
+import com.hotelsystem.room_service.event.RoomRatesChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Recent changes that can move a quote, for services that cache prices: the room IDs whose row
+// changed, or a marker for a rate rule change (which can move every room of a type).
+// Readers poll with the last version they saw and drop only what changed since then.
+@Component
+public class RoomPriceChangeLog {
+
+    private static final long ALL_ROOMS = -1;
+
+    // Versions are "<epoch>-<sequence>"; a version from before a restart means "drop everything"
+    private final long epoch = System.currentTimeMillis();
+    private final long[] roomIds;
+    private final Lock lock = new ReentrantLock();
+    private long lastSequence;
+
+    public RoomPriceChangeLog(@Value("${room.price-changes.history-size:4096}") int historySize) {
+        this.roomIds = new long[historySize];
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(RoomChangedEvent event) {
+        record(event.getRoomId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(RoomRatesChangedEvent event) {
+        record(ALL_ROOMS);
+    }
+
+    public RoomPriceChanges since(String version) {
+        lock.lock();
+        try {
+            String current = epoch + "-" + lastSequence;
+            long after = parse(version);
+            long oldest = Math.max(1, lastSequence - roomIds.length + 1);
+            if (after < oldest - 1 || after > lastSequence) {
+                return new RoomPriceChanges(current, List.of(), true);
+            }
+            Set<Long> changed = new LinkedHashSet<>();
+            for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+                long roomId = roomIds[(int) (sequence % roomIds.length)];
+                if (roomId == ALL_ROOMS) {
+                    return new RoomPriceChanges(current, List.of(), true);
+                }
+                changed.add(roomId);
+            }
+            return new RoomPriceChanges(current, new ArrayList<>(changed), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(Long roomId) {
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            roomIds[(int) (sequence % roomIds.length)] = roomId == null ? ALL_ROOMS : roomId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // -1 for a missing, malformed or foreign version, which forces a full drop
+    private long parse(String version) {
+        if (version == null) {
+            return -1;
+        }
+        int dash = version.indexOf('-');
+        try {
+            if (dash > 0 && Long.parseLong(version.substring(0, dash)) == epoch) {
+                return Long.parseLong(version.substring(dash + 1));
+            }
+        } catch (NumberFormatException ignored) {
+            // Treated like a version from another epoch
+        }
+        return -1;
+    }
+}
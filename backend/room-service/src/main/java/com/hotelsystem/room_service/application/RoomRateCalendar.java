@@ -0,0 +1,183 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomRatesChangedEvent;
+import com.hotelsystem.room_service.model.RoomRate;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.repository.RoomRateRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Rate rules flattened into one dense array of nights per room type, held as prefix sums so the
+// price of any stay inside the window is two subtractions. Nights no rule covers fall back to the
+// room's own price, so the sums track covered cents and covered nights separately.
+@Component
+public class RoomRateCalendar {
+
+    // Window starts a little in the past so back-dated updates of current stays stay on the fast path
+    private static final int PAST_DAYS = 31;
+    private static final long UNCOVERED = -1;
+
+    private final RoomRateRepository roomRateRepository;
+    private final int horizonDays;
+
+    private final Lock lock = new ReentrantLock();
+    private volatile Rates rates = Rates.EMPTY;
+
+    public RoomRateCalendar(RoomRateRepository roomRateRepository,
+                            @Value("${room.rates.horizon-days:730}") int horizonDays) {
+        this.roomRateRepository = roomRateRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    // Read under the lock so two reloads cannot publish their rules out of order
+    @PostConstruct
+    void load() {
+        lock.lock();
+        try {
+            rebuild(roomRateRepository.findAllByOrderByIdAsc());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Rules in ID order
+    void load(List<RoomRate> rules) {
+        lock.lock();
+        try {
+            rebuild(rules);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(RoomRatesChangedEvent event) {
+        load();
+    }
+
+    // Total cents for the nights [checkIn, checkOut) of a room of this type priced at baseCents per night
+    public long quote(RoomType type, long baseCents, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        Rates current = currentRates();
+        long windowEnd = current.firstDay + current.days;
+
+        long total = 0;
+        long inFrom = Math.max(from, current.firstDay);
+        long inTo = Math.min(to, windowEnd);
+        if (inFrom < inTo) {
+            TypeRates typeRates = current.byType[type.ordinal()];
+            int a = (int) (inFrom - current.firstDay);
+            int b = (int) (inTo - current.firstDay);
+            int covered = typeRates.coveredNights[b] - typeRates.coveredNights[a];
+            total += typeRates.coveredCents[b] - typeRates.coveredCents[a] + (long) (b - a - covered) * baseCents;
+        }
+        // Nights outside the window are rare (far-future or old stays); price them rule by rule
+        total += slowQuote(current.rules, type, baseCents, from, Math.min(to, current.firstDay));
+        total += slowQuote(current.rules, type, baseCents, Math.max(from, windowEnd), to);
+        return total;
+    }
+
+    // The window slides once a day; rebuilding from the rules in memory takes well under a millisecond
+    private Rates currentRates() {
+        Rates current = rates;
+        long today = LocalDate.now().toEpochDay();
+        if (current.builtOn == today) {
+            return current;
+        }
+        lock.lock();
+        try {
+            current = rates;
+            return current.builtOn == today ? current : rebuild(current.rules);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long slowQuote(List<RoomRate> rules, RoomType type, long baseCents, long from, long to) {
+        long total = 0;
+        for (long day = from; day < to; day++) {
+            long cents = rateOn(rules, type, day);
+            total += cents == UNCOVERED ? baseCents : cents;
+        }
+        return total;
+    }
+
+    // Caller holds the lock
+    private Rates rebuild(List<RoomRate> rules) {
+        long today = LocalDate.now().toEpochDay();
+        long firstDay = today - PAST_DAYS;
+        int days = PAST_DAYS + horizonDays;
+        RoomType[] types = RoomType.values();
+        TypeRates[] byType = new TypeRates[types.length];
+        long[] nightly = new long[days];
+        for (RoomType type : types) {
+            Arrays.fill(nightly, UNCOVERED);
+            // Rules are in ID order, so a newer rule overwrites the nights it shares with an older one
+            for (RoomRate rule : rules) {
+                if (rule.getRoomType() != type) {
+                    continue;
+                }
+                long cents = toCents(rule);
+                long start = Math.max(rule.getStartDate().toEpochDay(), firstDay);
+                long end = Math.min(rule.getEndDate().toEpochDay(), firstDay + days);
+                for (long day = start; day < end; day++) {
+                    if (appliesOn(rule, day)) {
+                        nightly[(int) (day - firstDay)] = cents;
+                    }
+                }
+            }
+            long[] coveredCents = new long[days + 1];
+            int[] coveredNights = new int[days + 1];
+            for (int i = 0; i < days; i++) {
+                boolean covered = nightly[i] != UNCOVERED;
+                coveredCents[i + 1] = coveredCents[i] + (covered ? nightly[i] : 0);
+                coveredNights[i + 1] = coveredNights[i] + (covered ? 1 : 0);
+            }
+            byType[type.ordinal()] = new TypeRates(coveredCents, coveredNights);
+        }
+        Rates rebuilt = new Rates(List.copyOf(rules), today, firstDay, days, byType);
+        rates = rebuilt;
+        return rebuilt;
+    }
+
+    private static long rateOn(List<RoomRate> rules, RoomType type, long day) {
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            RoomRate rule = rules.get(i);
+            if (rule.getRoomType() == type && day >= rule.getStartDate().toEpochDay()
+                    && day < rule.getEndDate().toEpochDay() && appliesOn(rule, day)) {
+                return toCents(rule);
+            }
+        }
+        return UNCOVERED;
+    }
+
+    private static boolean appliesOn(RoomRate rule, long epochDay) {
+        if (rule.getDaysOfWeek() == null) {
+            return true;
+        }
+        // 1970-01-01 was a Thursday (bit 3)
+        int dayOfWeek = (int) Math.floorMod(epochDay + 3, 7);
+        return (rule.getDaysOfWeek() & (1 << dayOfWeek)) != 0;
+    }
+
+    private static long toCents(RoomRate rule) {
+        return rule.getPricePerNight().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private record TypeRates(long[] coveredCents, int[] coveredNights) {
+    }
+
+    private record Rates(List<RoomRate> rules, long builtOn, long firstDay, int days, TypeRates[] byType) {
+        static final Rates EMPTY = new Rates(List.of(), Long.MIN_VALUE, 0, 0, null);
+    }
+}
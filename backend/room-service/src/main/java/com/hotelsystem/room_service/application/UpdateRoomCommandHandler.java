@@ -1,22 +1,21 @@
 package com.hotelsystem.room_service.application;
 
-import com.hotelsystem.room_service.model.Amenity;
+import com.hotelsystem.room_service.event.RoomChangedEvent;
 import com.hotelsystem.room_service.model.Room;
-import com.hotelsystem.room_service.repository.AmenityRepository;
 import com.hotelsystem.room_service.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 public class UpdateRoomCommandHandler {
 
     private final RoomRepository roomRepository;
-    private final AmenityRepository amenityRepository;
+    private final AmenityResolver amenityResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoomImageStore imageStore;
 
     @Transactional
     public void handle(UpdateRoomCommand command) {
@@ -60,23 +59,16 @@ public class UpdateRoomCommandHandler {
         // but typically PUT replaces. Let's assume partial update for safety or check
         // frontend.
         if (command.getImageUrl() != null) {
-            room.setImageUrl(command.getImageUrl());
+            room.setImageUrl(imageStore.toReference(command.getImageUrl()));
         }
 
         if (command.getAmenities() != null) {
-            List<Amenity> amenityEntities = new ArrayList<>();
-            for (String amenityName : command.getAmenities()) {
-                String trimmedName = amenityName.trim();
-                if (!trimmedName.isEmpty()) {
-                    Amenity amenity = amenityRepository.findByName(trimmedName)
-                            .orElseGet(() -> amenityRepository
-                                    .save(new Amenity(null, trimmedName, "Description for " + trimmedName)));
-                    amenityEntities.add(amenity);
-                }
-            }
-            room.setAmenities(amenityEntities);
+            ResolvedAmenities amenities = amenityResolver.resolve(command.getAmenities());
+            room.setAmenities(amenities.amenities());
+            room.setAmenityMask(amenities.mask());
         }
 
         roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), room));
     }
 }
@@ -0,0 +1,20 @@
+package com.hotelsystem.room_service.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Reservation event forwarded by booking-service. A released booking frees its nights,
+// otherwise the booking's nights are (re)placed on the given room.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateRoomOccupancyCommand {
+    private Long bookingId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private boolean released;
+}
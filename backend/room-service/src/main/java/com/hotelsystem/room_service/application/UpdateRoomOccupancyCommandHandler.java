@@ -0,0 +1,89 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.RoomOccupancy;
+import com.hotelsystem.room_service.repository.RoomOccupancyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UpdateRoomOccupancyCommandHandler {
+
+    private final RoomOccupancyRepository roomOccupancyRepository;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+
+    @Transactional
+    public void handle(UpdateRoomOccupancyCommand command) {
+        String error = validate(command);
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
+        apply(command);
+    }
+
+    // One transaction for the batch, applied in order. Entries are validated before anything is written:
+    // an invalid one is logged and skipped so it cannot block the sender, which would otherwise redeliver
+    // the batch forever. A write that fails still fails the whole batch, which the sender retries.
+    @Transactional
+    public void handleAll(List<UpdateRoomOccupancyCommand> commands) {
+        List<UpdateRoomOccupancyCommand> valid = new ArrayList<>(commands.size());
+        for (UpdateRoomOccupancyCommand command : commands) {
+            String error = validate(command);
+            if (error != null) {
+                log.warn("Skipping occupancy update for booking {}: {}", command.getBookingId(), error);
+            } else {
+                valid.add(command);
+            }
+        }
+        for (UpdateRoomOccupancyCommand command : valid) {
+            apply(command);
+        }
+    }
+
+    private static String validate(UpdateRoomOccupancyCommand command) {
+        if (command.getBookingId() == null) {
+            return "Booking ID is required.";
+        }
+        if (command.isReleased()) {
+            return null;
+        }
+        if (command.getRoomId() == null || command.getCheckInDate() == null || command.getCheckOutDate() == null) {
+            return "Room ID and stay dates are required.";
+        }
+        if (!command.getCheckOutDate().isAfter(command.getCheckInDate())) {
+            return "Check-out date must be after check-in date.";
+        }
+        return null;
+    }
+
+    private void apply(UpdateRoomOccupancyCommand command) {
+        if (command.isReleased()) {
+            roomOccupancyRepository.deleteById(command.getBookingId());
+            afterCommit(() -> availabilityCalendar.release(command.getBookingId()));
+            return;
+        }
+        // Upsert: replaying the same event (or a rescheduled booking) just moves the stay
+        roomOccupancyRepository.save(new RoomOccupancy(command.getBookingId(), command.getRoomId(),
+                command.getCheckInDate(), command.getCheckOutDate()));
+        afterCommit(() -> availabilityCalendar.reserve(command.getBookingId(), command.getRoomId(),
+                command.getCheckInDate(), command.getCheckOutDate()));
+    }
+
+    // Only touch the calendar once the row is durable, so a rollback cannot leave it ahead of the table
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,28 +1,38 @@
 package com.hotelsystem.room_service.application;
 
+import com.hotelsystem.room_service.event.RoomChangedEvent;
+import com.hotelsystem.room_service.event.RoomStatusChangedEvent;
 import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomStatus;
 import com.hotelsystem.room_service.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class UpdateRoomStatusCommandHandler {
 
     private final RoomRepository roomRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void handle(UpdateRoomStatusCommand command) {
         Room room = roomRepository.findById(command.getRoomId())
                 .orElseThrow(() -> new RuntimeException("Room not found"));
-        
-        // Capture old status for event (omitted here)
-        // RoomStatus oldStatus = room.getStatus();
-        
+
+        RoomStatus oldStatus = room.getStatus();
         room.setStatus(command.getNewStatus());
         roomRepository.save(room);
-        
-        // Publish RoomStatusChangedEvent (omitted)
+        eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), room));
+
+        // Delivered to stream subscribers once the transaction commits
+        if (oldStatus != command.getNewStatus()) {
+            eventPublisher.publishEvent(new RoomStatusChangedEvent(room.getId(), oldStatus, command.getNewStatus(),
+                    LocalDateTime.now()));
+        }
     }
 }
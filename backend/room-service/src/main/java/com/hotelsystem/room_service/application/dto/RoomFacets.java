@@ -0,0 +1,30 @@
+package com.hotelsystem.room_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomFacets {
+    private int total;
+    private Map<String, Integer> types;
+    private Map<String, Integer> views;
+    private List<PriceBand> priceBands;
+    private Map<String, Integer> guestCapacity;
+
+    // min inclusive, max exclusive; null for an open end
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBand {
+        private BigDecimal min;
+        private BigDecimal max;
+        private int count;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hotelsystem.room_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomImage {
+    // SHA-256 of the image bytes
+    private String id;
+    // Reference to store in Room.imageUrl
+    private String url;
+}
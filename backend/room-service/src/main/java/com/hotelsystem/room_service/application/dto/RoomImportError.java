@@ -0,0 +1,15 @@
+package com.hotelsystem.room_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomImportError {
+    // 1-based position of the room in the upload (CSV header not counted)
+    private int row;
+    private String roomNumber;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.hotelsystem.room_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomImportResult {
+    private int received;
+    private int imported;
+    private List<RoomImportError> errors = new ArrayList<>();
+}
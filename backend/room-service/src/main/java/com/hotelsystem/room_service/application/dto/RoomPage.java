@@ -0,0 +1,16 @@
+package com.hotelsystem.room_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomPage {
+    private List<RoomSummary> items;
+    // Opaque cursor for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.hotelsystem.room_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// allRooms is set when the caller's version is too old, from before a restart, or a rate rule changed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomPriceChanges {
+    private String version;
+    private List<Long> roomIds;
+    private boolean allRooms;
+}
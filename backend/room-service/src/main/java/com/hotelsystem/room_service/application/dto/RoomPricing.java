@@ -0,0 +1,18 @@
+package com.hotelsystem.room_service.application.dto;
+
+import com.hotelsystem.room_service.model.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Base price of a room and the type whose rate rules apply to it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomPricing {
+    private Long roomId;
+    private RoomType roomType;
+    private BigDecimal pricePerNight;
+}
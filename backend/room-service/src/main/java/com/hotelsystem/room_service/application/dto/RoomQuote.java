@@ -0,0 +1,22 @@
+package com.hotelsystem.room_service.application.dto;
+
+import com.hotelsystem.room_service.model.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomQuote {
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int nights;
+    private BigDecimal totalPrice;
+    // Type the room is sold as; booking-service files revenue under it
+    private RoomType roomType;
+}
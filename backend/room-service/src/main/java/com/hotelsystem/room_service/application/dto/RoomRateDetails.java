@@ -0,0 +1,22 @@
+package com.hotelsystem.room_service.application.dto;
+
+import com.hotelsystem.room_service.model.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomRateDetails {
+    private Long id;
+    private RoomType roomType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // Bit (dayOfWeek - 1) per weekday, Monday = bit 0; null means every day
+    private Integer daysOfWeek;
+    private BigDecimal pricePerNight;
+}
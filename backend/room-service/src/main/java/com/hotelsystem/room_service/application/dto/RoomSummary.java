@@ -0,0 +1,25 @@
+package com.hotelsystem.room_service.application.dto;
+
+import com.hotelsystem.room_service.model.RoomStatus;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.model.RoomView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// List-view projection of a Room: no description, image or amenities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSummary {
+    private Long id;
+    private String roomNumber;
+    private RoomType type;
+    private RoomStatus status;
+    private RoomView viewType;
+    private BigDecimal pricePerNight;
+    private Integer maxGuests;
+    private Integer bedCount;
+}
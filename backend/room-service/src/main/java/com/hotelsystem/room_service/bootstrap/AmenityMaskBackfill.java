@@ -0,0 +1,60 @@
+package com.hotelsystem.room_service.bootstrap;
+
+import com.hotelsystem.room_service.application.AmenityResolver;
+import com.hotelsystem.room_service.model.Amenity;
+import com.hotelsystem.room_service.repository.AmenityRepository;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rows written before amenity bits existed: give amenities without a bit the next free positions
+// (oldest first), then compute the mask of every room that has none yet from room_amenities.
+@Component
+@RequiredArgsConstructor
+public class AmenityMaskBackfill implements CommandLineRunner {
+
+    private final AmenityRepository amenityRepository;
+    private final RoomRepository roomRepository;
+    private final AmenityResolver amenityResolver;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer max = amenityRepository.findMaxBitIndex();
+            int next = max == null ? 0 : max + 1;
+            for (Amenity amenity : amenityRepository.findByBitIndexIsNullOrderByIdAsc()) {
+                if (next >= AmenityResolver.MASK_BITS) {
+                    break;
+                }
+                amenity.setBitIndex(next++);
+            }
+        });
+        // Cached entries and the bit counter may predate the assignments above
+        amenityResolver.invalidateAll();
+
+        List<Long> roomIds = roomRepository.findIdsWithoutAmenityMask();
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> maskByRoom = new HashMap<>();
+        jdbcTemplate.query("select ra.room_id, a.bit_index from room_amenities ra "
+                + "join amenities a on a.id = ra.amenity_id where a.bit_index is not null", rs -> {
+            maskByRoom.merge(rs.getLong(1), AmenityResolver.bit(rs.getInt(2)), (a, b) -> a | b);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long roomId : roomIds) {
+                roomRepository.updateAmenityMask(roomId, maskByRoom.getOrDefault(roomId, 0L));
+            }
+        });
+        System.out.println("--- Computed amenity masks for " + roomIds.size() + " rooms ---");
+    }
+}
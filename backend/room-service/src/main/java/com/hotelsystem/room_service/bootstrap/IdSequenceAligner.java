@@ -0,0 +1,36 @@
+package com.hotelsystem.room_service.bootstrap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Tables that moved from IDENTITY to pooled sequences keep their old rows; make sure each sequence
+// hands out blocks above the highest existing ID before anything is inserted.
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+    // The schema is created/updated while the EntityManagerFactory is built
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void align() {
+        align("amenities", "amenities_seq", 50);
+        align("rooms", "rooms_seq", 50);
+    }
+
+    private void align(String table, String sequence, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                Long.class, sequence);
+        // A pooled optimizer treats each sequence value as the top of a block of allocationSize IDs
+        long safe = maxId + allocationSize + 1;
+        if (maxId > 0 && (next == null || next < safe)) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + safe);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hotelsystem.room_service.bootstrap;
+
+import com.hotelsystem.room_service.application.RoomImageStore;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Moves base64 images still inlined in rooms.image_url into the image store, one room per transaction
+// so a large backlog never holds more than one image in memory.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "room.images.migrate-inline", havingValue = "true", matchIfMissing = true)
+public class RoomImageMigration implements CommandLineRunner {
+
+    private final RoomRepository roomRepository;
+    private final RoomImageStore imageStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<Long> roomIds = roomRepository.findIdsWithInlineImage();
+        int migrated = 0;
+        for (Long roomId : roomIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    String imageUrl = roomRepository.findImageUrlById(roomId);
+                    roomRepository.updateImageUrl(roomId, imageStore.toReference(imageUrl));
+                });
+                migrated++;
+            } catch (RuntimeException e) {
+                System.out.println("--- Could not migrate image of room " + roomId + ": " + e.getMessage() + " ---");
+            }
+        }
+        if (!roomIds.isEmpty()) {
+            System.out.println("--- Migrated " + migrated + " of " + roomIds.size() + " inline room images ---");
+        }
+    }
+}
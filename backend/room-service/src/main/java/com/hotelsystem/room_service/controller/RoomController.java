@@ -4,13 +4,24 @@ import com.hotelsystem.room_service.application.GetAvailableRoomsQuery;
 import com.hotelsystem.room_service.application.GetAvailableRoomsQueryHandler;
 import com.hotelsystem.room_service.application.UpdateRoomStatusCommand;
 import com.hotelsystem.room_service.application.UpdateRoomStatusCommandHandler;
+import com.hotelsystem.room_service.application.dto.RoomFacets;
+import com.hotelsystem.room_service.application.dto.RoomImportResult;
+import com.hotelsystem.room_service.application.dto.RoomPage;
+import com.hotelsystem.room_service.application.dto.RoomPriceChanges;
+import com.hotelsystem.room_service.application.dto.RoomQuote;
 import com.hotelsystem.room_service.model.Room;
 import com.hotelsystem.room_service.model.RoomType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -25,11 +36,56 @@ public class RoomController {
     private final com.hotelsystem.room_service.application.UpdateRoomCommandHandler updateRoomCommandHandler;
     private final com.hotelsystem.room_service.application.DeleteRoomCommandHandler deleteRoomCommandHandler;
     private final com.hotelsystem.room_service.application.GetRoomQueryHandler getRoomQueryHandler;
+    private final com.hotelsystem.room_service.application.UpdateRoomOccupancyCommandHandler updateRoomOccupancyCommandHandler;
+    private final com.hotelsystem.room_service.application.GetRoomSummariesQueryHandler getRoomSummariesQueryHandler;
+    private final com.hotelsystem.room_service.application.ImportRoomsCommandHandler importRoomsCommandHandler;
+    private final com.hotelsystem.room_service.application.MarkRoomCleanedCommandHandler markRoomCleanedCommandHandler;
+    private final com.hotelsystem.room_service.application.RoomEventStream roomEventStream;
+    private final com.hotelsystem.room_service.application.RoomCatalogVersion catalogVersion;
+    private final com.hotelsystem.room_service.application.GetRoomQuoteQueryHandler getRoomQuoteQueryHandler;
+    private final com.hotelsystem.room_service.application.GetRoomFacetsQueryHandler getRoomFacetsQueryHandler;
+    private final com.hotelsystem.room_service.application.RoomPriceChangeLog priceChangeLog;
 
+    // Strong ETag from the row version; a matching If-None-Match costs one primary-key lookup
     @GetMapping("/{id}")
-    public ResponseEntity<Room> getRoom(@PathVariable Long id) {
-        Room room = getRoomQueryHandler.handle(new com.hotelsystem.room_service.application.GetRoomQuery(id));
-        return ResponseEntity.ok(room);
+    public ResponseEntity<Room> getRoom(@PathVariable Long id, WebRequest request) {
+        com.hotelsystem.room_service.application.GetRoomQuery query =
+                new com.hotelsystem.room_service.application.GetRoomQuery(id);
+        Long version = getRoomQueryHandler.version(query);
+        if (version != null && request.checkNotModified(roomETag(id, version))) {
+            return null;
+        }
+        Room room = getRoomQueryHandler.handle(query);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .eTag(roomETag(room.getId(), room.getVersion())).body(room);
+    }
+
+    // Total for the nights [checkInDate, checkOutDate) under the room type's rate calendar
+    @GetMapping("/{id}/quote")
+    public ResponseEntity<RoomQuote> getQuote(@PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
+        return ResponseEntity.ok(getRoomQuoteQueryHandler.handle(
+                new com.hotelsystem.room_service.application.GetRoomQuoteQuery(id, checkInDate, checkOutDate)));
+    }
+
+    @PostMapping("/quotes")
+    public ResponseEntity<List<RoomQuote>> getQuotes(
+            @RequestBody com.hotelsystem.room_service.application.GetRoomQuotesQuery query) {
+        return ResponseEntity.ok(getRoomQuoteQueryHandler.handle(query));
+    }
+
+    // Base prices and types, so callers holding the rate rules can price any stay themselves
+    @PostMapping("/pricing")
+    public ResponseEntity<List<com.hotelsystem.room_service.application.dto.RoomPricing>> getPricing(
+            @RequestBody com.hotelsystem.room_service.application.GetRoomPricesQuery query) {
+        return ResponseEntity.ok(getRoomQuoteQueryHandler.handle(query));
+    }
+
+    // Rooms whose quotes may have moved since the given version; polled by services that cache prices
+    @GetMapping("/price-changes")
+    public ResponseEntity<RoomPriceChanges> getPriceChanges(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(priceChangeLog.since(since));
     }
 
     @DeleteMapping("/{id}")
@@ -48,12 +104,73 @@ public class RoomController {
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) com.hotelsystem.room_service.model.RoomView viewType,
             @RequestParam(required = false) Integer maxGuests,
-            @RequestParam(required = false) Integer bedCount) {
+            @RequestParam(required = false) Integer bedCount,
+            @RequestParam(required = false) List<String> amenities,
+            WebRequest request) {
 
+        // Read before the search: a change landing mid-query only makes the tag older than the body
+        String etag = catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         GetAvailableRoomsQuery query = new GetAvailableRoomsQuery(checkInDate, checkOutDate, type, status, minPrice,
-                maxPrice, viewType, maxGuests, bedCount);
+                maxPrice, viewType, maxGuests, bedCount, amenities);
         List<Room> rooms = getAvailableRoomsQueryHandler.handle(query);
-        return ResponseEntity.ok(rooms);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(rooms);
+    }
+
+    // Lightweight, keyset-paginated listing for list views; full rooms come from GET /{id}
+    @GetMapping("/summaries")
+    public ResponseEntity<RoomPage> getRoomSummaries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam(required = false) RoomType type,
+            @RequestParam(required = false) com.hotelsystem.room_service.model.RoomStatus status,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) com.hotelsystem.room_service.model.RoomView viewType,
+            @RequestParam(required = false) Integer maxGuests,
+            @RequestParam(required = false) Integer bedCount,
+            @RequestParam(required = false) List<String> amenities,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+
+        String etag = catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        GetAvailableRoomsQuery filter = new GetAvailableRoomsQuery(checkInDate, checkOutDate, type, status, minPrice,
+                maxPrice, viewType, maxGuests, bedCount, amenities);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(getRoomSummariesQueryHandler
+                .handle(new com.hotelsystem.room_service.application.GetRoomSummariesQuery(filter, sort, cursor, limit)));
+    }
+
+    // Filter counts for the search page; each facet ignores its own filter so the other options stay visible
+    @GetMapping("/facets")
+    public ResponseEntity<RoomFacets> getRoomFacets(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam(required = false) RoomType type,
+            @RequestParam(required = false) com.hotelsystem.room_service.model.RoomStatus status,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) com.hotelsystem.room_service.model.RoomView viewType,
+            @RequestParam(required = false) Integer maxGuests,
+            @RequestParam(required = false) Integer bedCount,
+            @RequestParam(required = false) List<String> amenities,
+            WebRequest request) {
+
+        String etag = catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        GetAvailableRoomsQuery query = new GetAvailableRoomsQuery(checkInDate, checkOutDate, type, status, minPrice,
+                maxPrice, viewType, maxGuests, bedCount, amenities);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(getRoomFacetsQueryHandler.handle(query));
     }
 
     @PostMapping
@@ -62,6 +179,14 @@ public class RoomController {
         return ResponseEntity.ok(createRoomCommandHandler.handle(command));
     }
 
+    // Bulk onboarding: a JSON array of CreateRoomCommand, or CSV with a header row when sent as text/csv
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<RoomImportResult> importRooms(HttpServletRequest request) throws IOException {
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith("text/csv");
+        return ResponseEntity.ok(importRoomsCommandHandler.handle(
+                new com.hotelsystem.room_service.application.ImportRoomsCommand(request.getInputStream(), csv)));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<Void> updateRoomStatus(@PathVariable Long id, @RequestBody UpdateRoomStatusCommand command) {
         // Ensure command ID matches path ID for safety
@@ -70,6 +195,24 @@ public class RoomController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{id}/cleaned")
+    public ResponseEntity<Void> markRoomCleaned(@PathVariable Long id,
+            @RequestBody(required = false) com.hotelsystem.room_service.application.MarkRoomCleanedCommand command) {
+        if (command == null) {
+            command = new com.hotelsystem.room_service.application.MarkRoomCleanedCommand();
+        }
+        command.setRoomId(id);
+        markRoomCleanedCommandHandler.handle(command);
+        return ResponseEntity.ok().build();
+    }
+
+    // Live room-status-changed / room-cleaned events for front-desk and housekeeping screens.
+    // Browsers resend Last-Event-ID on reconnect; a "resync" event means reload GET /api/rooms.
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRoomEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return roomEventStream.subscribe(lastEventId);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Void> updateRoom(@PathVariable Long id,
             @RequestBody com.hotelsystem.room_service.application.UpdateRoomCommand command) {
@@ -77,4 +220,29 @@ public class RoomController {
         updateRoomCommandHandler.handle(command);
         return ResponseEntity.ok().build();
     }
+
+    // Reservation events from booking-service keep the availability calendar current
+    @PostMapping("/occupancy")
+    public ResponseEntity<Void> updateRoomOccupancy(
+            @RequestBody com.hotelsystem.room_service.application.UpdateRoomOccupancyCommand command) {
+        updateRoomOccupancyCommandHandler.handle(command);
+        return ResponseEntity.ok().build();
+    }
+
+    // Ordered batch from booking-service's outbox relay; invalid entries are skipped, not retried
+    @PostMapping("/occupancy/batch")
+    public ResponseEntity<Void> updateRoomOccupancies(
+            @RequestBody List<com.hotelsystem.room_service.application.UpdateRoomOccupancyCommand> commands) {
+        updateRoomOccupancyCommandHandler.handleAll(commands);
+        return ResponseEntity.ok().build();
+    }
+
+    private static String roomETag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // Same URL means same filters, so the catalog version alone identifies a list response
+    private String catalogETag() {
+        return "\"catalog-" + catalogVersion.current() + "\"";
+    }
 }
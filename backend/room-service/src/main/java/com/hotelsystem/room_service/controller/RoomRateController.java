@@ -0,0 +1,40 @@
+package com.hotelsystem.room_service.controller;
+
+import com.hotelsystem.room_service.application.CreateRoomRateCommand;
+import com.hotelsystem.room_service.application.CreateRoomRateCommandHandler;
+import com.hotelsystem.room_service.application.DeleteRoomRateCommand;
+import com.hotelsystem.room_service.application.DeleteRoomRateCommandHandler;
+import com.hotelsystem.room_service.application.GetRoomRatesQueryHandler;
+import com.hotelsystem.room_service.application.dto.RoomRateDetails;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Seasonal and weekday rates per room type, applied by the quote endpoints
+@RestController
+@RequestMapping("/api/rooms/rates")
+@RequiredArgsConstructor
+public class RoomRateController {
+
+    private final GetRoomRatesQueryHandler getRoomRatesQueryHandler;
+    private final CreateRoomRateCommandHandler createRoomRateCommandHandler;
+    private final DeleteRoomRateCommandHandler deleteRoomRateCommandHandler;
+
+    @GetMapping
+    public ResponseEntity<List<RoomRateDetails>> getRates() {
+        return ResponseEntity.ok(getRoomRatesQueryHandler.handle());
+    }
+
+    @PostMapping
+    public ResponseEntity<Long> createRate(@RequestBody CreateRoomRateCommand command) {
+        return ResponseEntity.ok(createRoomRateCommandHandler.handle(command));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRate(@PathVariable Long id) {
+        deleteRoomRateCommandHandler.handle(new DeleteRoomRateCommand(id));
+        return ResponseEntity.ok().build();
+    }
+}
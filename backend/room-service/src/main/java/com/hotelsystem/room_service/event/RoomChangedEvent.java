@@ -0,0 +1,15 @@
+package com.hotelsystem.room_service.event;
+
+import com.hotelsystem.room_service.model.Room;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Published by the room command handlers; room is null when the room was deleted.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomChangedEvent {
+    private Long roomId;
+    private Room room;
+}
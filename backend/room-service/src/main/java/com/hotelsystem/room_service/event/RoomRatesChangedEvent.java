@@ -0,0 +1,12 @@
+package com.hotelsystem.room_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomRatesChangedEvent {
+    private Long rateId;
+}
@@ -12,11 +12,18 @@ import lombok.NoArgsConstructor;
 @Table(name = "amenities")
 public class Amenity {
 
+    // Pooled sequence so new amenities are inserted in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "amenities_seq")
+    @SequenceGenerator(name = "amenities_seq", sequenceName = "amenities_seq", allocationSize = 50)
     private Long id;
 
+    @Column(unique = true)
     private String name;
 
     private String description;
+
+    // Position of this amenity in Room.amenityMask; assigned once and never reused, null once all 63 bits are taken
+    @Column(unique = true)
+    private Integer bitIndex;
 }
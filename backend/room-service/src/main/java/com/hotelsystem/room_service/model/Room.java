@@ -2,6 +2,7 @@ package com.hotelsystem.room_service.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -9,11 +10,18 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "rooms")
+@Table(name = "rooms", indexes = {
+        @Index(name = "idx_rooms_status_type_price", columnList = "status, type, price_per_night"),
+        @Index(name = "idx_rooms_view_type", columnList = "view_type"),
+        @Index(name = "idx_rooms_guests_beds", columnList = "max_guests, bed_count"),
+        @Index(name = "idx_rooms_price_id", columnList = "price_per_night, id")
+})
 public class Room {
 
+    // Pooled sequence so bulk imports are inserted in JDBC batches (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rooms_seq")
+    @SequenceGenerator(name = "rooms_seq", sequenceName = "rooms_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -40,7 +48,17 @@ public class Room {
     @Column(columnDefinition = "TEXT")
     private String imageUrl;
 
-    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.EAGER)
+    // Loaded on demand; queries that return amenities fetch them with an entity graph or in batches
+    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
     @JoinTable(name = "room_amenities", joinColumns = @JoinColumn(name = "room_id"), inverseJoinColumns = @JoinColumn(name = "amenity_id"))
+    @BatchSize(size = 50)
     private List<Amenity> amenities;
+
+    // Optimistic lock and ETag source; rows created before the column existed start at 0
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    // OR of 1 << Amenity.bitIndex over the room's amenities, for join-free amenity filters
+    private Long amenityMask;
 }
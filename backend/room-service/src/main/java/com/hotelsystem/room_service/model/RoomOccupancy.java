@@ -0,0 +1,30 @@
+package com.hotelsystem.room_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Nights held on a room by a booking-service reservation, keyed by booking ID.
+// This is the durable source the in-memory availability calendar is rebuilt from.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "room_occupancy", indexes = @Index(name = "idx_room_occupancy_room", columnList = "roomId"))
+public class RoomOccupancy {
+
+    @Id
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long roomId;
+
+    @Column(nullable = false)
+    private LocalDate checkInDate;
+
+    @Column(nullable = false)
+    private LocalDate checkOutDate;
+}
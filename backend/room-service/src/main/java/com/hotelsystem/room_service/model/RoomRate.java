@@ -0,0 +1,39 @@
+package com.hotelsystem.room_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Nightly price for every room of a type over [startDate, endDate), optionally only on some weekdays.
+// Nights no rule covers are charged at the room's own pricePerNight; where rules overlap the newest wins.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "room_rates", indexes = @Index(name = "idx_room_rates_type", columnList = "roomType"))
+public class RoomRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RoomType roomType;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @Column(nullable = false)
+    private LocalDate endDate;
+
+    // Bit (dayOfWeek - 1) per weekday the rate applies to, Monday = bit 0; null means every day
+    private Integer daysOfWeek;
+
+    @Column(nullable = false)
+    private BigDecimal pricePerNight;
+}
@@ -2,11 +2,20 @@ package com.hotelsystem.room_service.repository;
 
 import com.hotelsystem.room_service.model.Amenity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AmenityRepository extends JpaRepository<Amenity, Long> {
     Optional<Amenity> findByName(String name);
+    List<Amenity> findByNameIn(Collection<String> names);
+
+    @Query("select max(a.bitIndex) from Amenity a")
+    Integer findMaxBitIndex();
+
+    List<Amenity> findByBitIndexIsNullOrderByIdAsc();
 }
@@ -0,0 +1,9 @@
+package com.hotelsystem.room_service.repository;
+
+import com.hotelsystem.room_service.model.RoomOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RoomOccupancyRepository extends JpaRepository<RoomOccupancy, Long> {
+}
@@ -0,0 +1,12 @@
+package com.hotelsystem.room_service.repository;
+
+import com.hotelsystem.room_service.model.RoomRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RoomRateRepository extends JpaRepository<RoomRate, Long> {
+    List<RoomRate> findAllByOrderByIdAsc();
+}
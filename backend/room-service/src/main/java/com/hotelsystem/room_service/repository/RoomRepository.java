@@ -3,14 +3,60 @@ package com.hotelsystem.room_service.repository;
 import com.hotelsystem.room_service.model.Room;
 import com.hotelsystem.room_service.model.RoomStatus;
 import com.hotelsystem.room_service.model.RoomType;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Long> {
+public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {
     List<Room> findByStatusAndType(RoomStatus status, RoomType type);
     List<Room> findByStatus(RoomStatus status);
     java.util.Optional<Room> findByRoomNumber(String roomNumber);
+
+    @Query("select r.roomNumber from Room r where r.roomNumber in :roomNumbers")
+    List<String> findExistingRoomNumbers(@Param("roomNumbers") Collection<String> roomNumbers);
+
+    // Search results carry their amenities; fetch them in the same statement instead of one select per room
+    @Override
+    @EntityGraph(attributePaths = "amenities")
+    List<Room> findAll(Specification<Room> spec);
+
+    @EntityGraph(attributePaths = "amenities")
+    List<Room> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "amenities")
+    java.util.Optional<Room> findWithAmenitiesById(Long id);
+
+    // Scalar columns only, for building the in-memory catalog snapshot without touching amenities
+    @Query("select r.id, r.type, r.status, r.viewType, r.pricePerNight, r.maxGuests, r.bedCount, r.amenityMask from Room r")
+    List<Object[]> findCatalogColumns();
+
+    @Query("select r.id from Room r where r.imageUrl like 'data:%'")
+    List<Long> findIdsWithInlineImage();
+
+    // Lets a conditional GET answer 304 without loading the room or its amenities
+    @Query("select r.version from Room r where r.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    @Query("select r.imageUrl from Room r where r.id = :id")
+    String findImageUrlById(@Param("id") Long id);
+
+    @Query("select r.id from Room r where r.amenityMask is null")
+    List<Long> findIdsWithoutAmenityMask();
+
+    @Modifying
+    @Query("update Room r set r.amenityMask = :amenityMask, r.version = r.version + 1 where r.id = :id")
+    int updateAmenityMask(@Param("id") Long id, @Param("amenityMask") Long amenityMask);
+
+    @Modifying
+    @Query("update Room r set r.imageUrl = :imageUrl, r.version = r.version + 1 where r.id = :id")
+    int updateImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
 }
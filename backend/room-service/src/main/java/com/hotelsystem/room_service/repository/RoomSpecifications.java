@@ -0,0 +1,77 @@
+package com.hotelsystem.room_service.repository;
+
+import com.hotelsystem.room_service.model.Amenity;
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomStatus;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.model.RoomView;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+// Composable search predicates for RoomRepository; a null argument means "no filter".
+public final class RoomSpecifications {
+
+    private RoomSpecifications() {
+    }
+
+    public static Specification<Room> hasStatus(RoomStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Room> hasType(RoomType type) {
+        return (root, query, cb) -> type == null ? null : cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Room> hasView(RoomView viewType) {
+        return (root, query, cb) -> viewType == null ? null : cb.equal(root.get("viewType"), viewType);
+    }
+
+    public static Specification<Room> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> minPrice == null ? null
+                : cb.greaterThanOrEqualTo(root.get("pricePerNight"), minPrice);
+    }
+
+    public static Specification<Room> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> maxPrice == null ? null
+                : cb.lessThanOrEqualTo(root.get("pricePerNight"), maxPrice);
+    }
+
+    public static Specification<Room> guestsAtLeast(Integer maxGuests) {
+        return (root, query, cb) -> maxGuests == null ? null
+                : cb.greaterThanOrEqualTo(root.get("maxGuests"), maxGuests);
+    }
+
+    public static Specification<Room> bedsAtLeast(Integer bedCount) {
+        return (root, query, cb) -> bedCount == null ? null
+                : cb.greaterThanOrEqualTo(root.get("bedCount"), bedCount);
+    }
+
+    // Every bit of the mask is set on the room: (amenity_mask & mask) = mask, no join
+    public static Specification<Room> hasAmenityBits(long mask) {
+        return (root, query, cb) -> mask == 0L ? null
+                : cb.equal(cb.function("bitand", Long.class, root.get("amenityMask"), cb.literal(mask)), mask);
+    }
+
+    // For amenities without a bit: correlated EXISTS over room_amenities
+    public static Specification<Room> hasAmenityNamed(String name) {
+        return (root, query, cb) -> {
+            if (name == null) {
+                return null;
+            }
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Room> same = subquery.from(Room.class);
+            Join<Room, Amenity> amenity = same.join("amenities");
+            subquery.select(same.get("id")).where(cb.equal(same.get("id"), root.get("id")),
+                    cb.equal(amenity.get("name"), name));
+            return cb.exists(subquery);
+        };
+    }
+
+    public static Specification<Room> none() {
+        return (root, query, cb) -> cb.disjunction();
+    }
+}
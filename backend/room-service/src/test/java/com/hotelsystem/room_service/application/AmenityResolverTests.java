@@ -0,0 +1,137 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:room-amenities;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AmenityResolverTests {
+
+	@Autowired
+	private CreateRoomCommandHandler createRoomCommandHandler;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private GetAvailableRoomsQueryHandler getAvailableRoomsQueryHandler;
+	@Autowired
+	private AmenityResolver amenityResolver;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void roomWritesCostConstantStatementsRegardlessOfAmenityCount() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		// Warm up past the sequence's initial value so both measured writes draw IDs from one allocated block
+		createRoomCommandHandler.handle(command("A-0", amenities("Warm-up", 2)));
+
+		statistics.clear();
+		createRoomCommandHandler.handle(command("A-1", amenities("Small", 5)));
+		long fewAmenities = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		createRoomCommandHandler.handle(command("A-2", amenities("Large", 25)));
+		assertEquals(fewAmenities, statistics.getPrepareStatementCount());
+
+		statistics.clear();
+		createRoomCommandHandler.handle(command("A-3", amenities("Large", 25)));
+		// Every name is cached now: the room number check is the only query
+		assertEquals(1, statistics.getQueryExecutionCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void concurrentWritesAddingTheSameAmenitiesAllSucceed() throws Exception {
+		List<String> names = amenities("Race", 4);
+		ExecutorService writers = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Long>> rooms = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				String roomNumber = "R-" + i;
+				rooms.add(writers.submit(() -> {
+					start.await();
+					return createRoomCommandHandler.handle(command(roomNumber, names));
+				}));
+			}
+			start.countDown();
+			for (Future<Long> room : rooms) {
+				room.get();
+			}
+		} finally {
+			writers.shutdown();
+		}
+		assertEquals(4, jdbcTemplate.queryForObject(
+				"select count(*) from amenities where name like 'Race amenity %'", Integer.class));
+		assertEquals(4, jdbcTemplate.queryForObject("select count(*) from room_amenities ra"
+				+ " join amenities a on a.id = ra.amenity_id where a.name = 'Race amenity 0'", Integer.class));
+	}
+
+	@Test
+	void searchFiltersOnAmenityMaskAndFallsBackToJoinForUnindexedAmenities() {
+		createRoomCommandHandler.handle(command("M-1", List.of("Filter WiFi", "Filter Minibar")));
+		createRoomCommandHandler.handle(command("M-2", List.of("Filter WiFi")));
+		createRoomCommandHandler.handle(command("M-3", List.of("Filter Minibar", "Filter Balcony")));
+
+		assertEquals(List.of("M-1"), search("Filter WiFi", "Filter Minibar"));
+		assertEquals(List.of("M-1", "M-2"), search("Filter WiFi"));
+		assertEquals(List.of(), search("Filter WiFi", "Unknown amenity"));
+
+		ReflectionTestUtils.setField(getAvailableRoomsQueryHandler, "snapshotEnabled", false);
+		try {
+			assertEquals(List.of("M-1"), search("Filter WiFi", "Filter Minibar"));
+			// An amenity registered after the bits ran out is matched through room_amenities
+			jdbcTemplate.update("update amenities set bit_index = null where name = 'Filter Balcony'");
+			amenityResolver.invalidateAll();
+			assertEquals(List.of("M-3"), search("Filter Minibar", "Filter Balcony"));
+		} finally {
+			ReflectionTestUtils.setField(getAvailableRoomsQueryHandler, "snapshotEnabled", true);
+		}
+	}
+
+	private List<String> search(String... amenities) {
+		GetAvailableRoomsQuery query = new GetAvailableRoomsQuery();
+		query.setAmenities(List.of(amenities));
+		return getAvailableRoomsQueryHandler.handle(query).stream()
+				.map(Room::getRoomNumber)
+				.filter(number -> number.startsWith("M-"))
+				.sorted()
+				.toList();
+	}
+
+	private static List<String> amenities(String prefix, int count) {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			names.add(prefix + " amenity " + i);
+		}
+		return names;
+	}
+
+	private static CreateRoomCommand command(String roomNumber, List<String> amenities) {
+		CreateRoomCommand command = new CreateRoomCommand();
+		command.setRoomNumber(roomNumber);
+		command.setType(RoomType.DELUXE);
+		command.setPricePerNight(BigDecimal.valueOf(180));
+		command.setAmenities(amenities);
+		return command;
+	}
+}
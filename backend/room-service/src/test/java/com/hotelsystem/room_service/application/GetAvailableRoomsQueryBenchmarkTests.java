@@ -0,0 +1,105 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomStatus;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.model.RoomView;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Opt-in: mvn test -Dbenchmark=true -Dtest=GetAvailableRoomsQueryBenchmarkTests
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:room-benchmark;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false"
+})
+class GetAvailableRoomsQueryBenchmarkTests {
+
+	private static final int ITERATIONS = 20;
+
+	@Autowired
+	private GetAvailableRoomsQueryHandler handler;
+	@Autowired
+	private RoomCatalogSnapshot catalogSnapshot;
+	@Autowired
+	private RoomRepository roomRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void compareSearchLatency() {
+		GetAvailableRoomsQuery query = new GetAvailableRoomsQuery(null, null, RoomType.SUITE, RoomStatus.AVAILABLE,
+				200.0, 400.0, RoomView.SEA_VIEW, 2, null, null);
+
+		for (int catalogSize : new int[]{10_000, 100_000}) {
+			seed(catalogSize);
+			catalogSnapshot.load();
+			int expected = transactionTemplate.execute(status -> legacySearch(query).size());
+
+			ReflectionTestUtils.setField(handler, "snapshotEnabled", false);
+			assertEquals(expected, handler.handle(query).size());
+			long legacy = medianMicros(() -> transactionTemplate.execute(status -> legacySearch(query)));
+			long specification = medianMicros(() -> handler.handle(query));
+
+			ReflectionTestUtils.setField(handler, "snapshotEnabled", true);
+			assertEquals(expected, handler.handle(query).size());
+			long snapshot = medianMicros(() -> handler.handle(query));
+			long snapshotFilter = medianMicros(() -> catalogSnapshot.search(query));
+
+			System.out.printf("rooms=%d matches=%d legacy=%dus specification=%dus snapshot=%dus (filter only %dus)%n",
+					catalogSize, expected, legacy, specification, snapshot, snapshotFilter);
+		}
+	}
+
+	// The pre-Specification path: load the whole catalog, filter in Java
+	private List<Room> legacySearch(GetAvailableRoomsQuery query) {
+		return roomRepository.findAll().stream()
+				.filter(room -> room.getType() == query.getType())
+				.filter(room -> room.getStatus() == query.getStatus())
+				.filter(room -> room.getPricePerNight().compareTo(BigDecimal.valueOf(query.getMinPrice())) >= 0)
+				.filter(room -> room.getPricePerNight().compareTo(BigDecimal.valueOf(query.getMaxPrice())) <= 0)
+				.filter(room -> room.getViewType() == query.getViewType())
+				.filter(room -> room.getMaxGuests() >= query.getMaxGuests())
+				.toList();
+	}
+
+	private void seed(int catalogSize) {
+		jdbcTemplate.update("delete from room_amenities");
+		jdbcTemplate.update("delete from rooms");
+		List<Object[]> rows = new ArrayList<>(catalogSize);
+		RoomType[] types = RoomType.values();
+		RoomStatus[] statuses = RoomStatus.values();
+		RoomView[] views = RoomView.values();
+		for (int i = 0; i < catalogSize; i++) {
+			rows.add(new Object[]{"B" + i, types[i % types.length].name(), BigDecimal.valueOf(50 + (i * 7) % 950),
+					statuses[i % statuses.length].name(), views[(i / 3) % views.length].name(), 1 + i % 6, 1 + i % 3});
+		}
+		jdbcTemplate.batchUpdate("insert into rooms (id, room_number, type, price_per_night, status, view_type, "
+				+ "max_guests, bed_count) values (next value for rooms_seq, ?, ?, ?, ?, ?, ?, ?)", rows);
+	}
+
+	private static long medianMicros(Runnable search) {
+		long[] samples = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			search.run();
+			samples[i] = (System.nanoTime() - start) / 1_000;
+		}
+		java.util.Arrays.sort(samples);
+		return samples[ITERATIONS / 2];
+	}
+}
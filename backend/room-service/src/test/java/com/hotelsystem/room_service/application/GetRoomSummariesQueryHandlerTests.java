@@ -0,0 +1,117 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.application.dto.RoomPage;
+import com.hotelsystem.room_service.application.dto.RoomSummary;
+import com.hotelsystem.room_service.model.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:room-summaries;DB_CLOSE_DELAY=-1")
+class GetRoomSummariesQueryHandlerTests {
+
+	@Autowired
+	private GetRoomSummariesQueryHandler handler;
+	@Autowired
+	private RoomAvailabilityCalendar availabilityCalendar;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("delete from room_amenities");
+		jdbcTemplate.update("delete from rooms");
+		for (int i = 0; i < 25; i++) {
+			// Prices repeat so the keyset has to break ties on id
+			jdbcTemplate.update("insert into rooms (id, room_number, type, price_per_night, status) "
+					+ "values (next value for rooms_seq, ?, ?, ?, ?)",
+					"S" + (100 + i), RoomType.DELUXE.name(), BigDecimal.valueOf(100 + (i % 5) * 10), "AVAILABLE");
+		}
+	}
+
+	@Test
+	void walksEveryRoomOnceInPriceOrder() {
+		List<RoomSummary> seen = walk("-pricePerNight", null);
+
+		assertEquals(25, seen.size());
+		assertEquals(25, seen.stream().map(RoomSummary::getId).distinct().count());
+		for (int i = 1; i < seen.size(); i++) {
+			RoomSummary previous = seen.get(i - 1);
+			RoomSummary current = seen.get(i);
+			int byPrice = previous.getPricePerNight().compareTo(current.getPricePerNight());
+			assertEquals(true, byPrice > 0 || (byPrice == 0 && previous.getId() > current.getId()));
+		}
+	}
+
+	@Test
+	void dateFilteredPagesSkipReservedRooms() {
+		List<Long> ids = jdbcTemplate.queryForList("select id from rooms order by id", Long.class);
+		LocalDate checkIn = LocalDate.of(2026, 12, 24);
+		for (int i = 0; i < 10; i++) {
+			availabilityCalendar.reserve(1000L + i, ids.get(i), checkIn, checkIn.plusDays(2));
+		}
+
+		GetAvailableRoomsQuery filter = new GetAvailableRoomsQuery();
+		filter.setCheckInDate(checkIn.plusDays(1));
+		filter.setCheckOutDate(checkIn.plusDays(3));
+		List<RoomSummary> seen = walk(null, filter);
+
+		assertEquals(ids.subList(10, 25), seen.stream().map(RoomSummary::getId).toList());
+		for (int i = 0; i < 10; i++) {
+			availabilityCalendar.release(1000L + i);
+		}
+	}
+
+	@Test
+	void mostlyBookedDatesEndTheScanEarlyWithACursor() {
+		for (int i = 0; i < 1_200; i++) {
+			jdbcTemplate.update("insert into rooms (id, room_number, type, price_per_night, status) "
+					+ "values (next value for rooms_seq, ?, ?, ?, ?)", "B" + i, RoomType.DELUXE.name(),
+					BigDecimal.valueOf(100), "AVAILABLE");
+		}
+		List<Long> ids = jdbcTemplate.queryForList("select id from rooms order by id", Long.class);
+		LocalDate checkIn = LocalDate.of(2027, 1, 10);
+		for (int i = 0; i < 1_150; i++) {
+			availabilityCalendar.reserve(5000L + i, ids.get(i), checkIn, checkIn.plusDays(2));
+		}
+		GetAvailableRoomsQuery filter = new GetAvailableRoomsQuery();
+		filter.setCheckInDate(checkIn);
+		filter.setCheckOutDate(checkIn.plusDays(2));
+
+		try {
+			// The first thousand rows are all booked: an empty page that resumes where it stopped
+			RoomPage first = handler.handle(new GetRoomSummariesQuery(filter, null, null, 4));
+			assertTrue(first.getItems().isEmpty());
+			assertNotNull(first.getNextCursor());
+			assertEquals(ids.subList(1_150, ids.size()), walk(null, filter).stream().map(RoomSummary::getId).toList());
+		} finally {
+			for (int i = 0; i < 1_150; i++) {
+				availabilityCalendar.release(5000L + i);
+			}
+		}
+	}
+
+	private List<RoomSummary> walk(String sort, GetAvailableRoomsQuery filter) {
+		List<RoomSummary> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			RoomPage page = handler.handle(new GetRoomSummariesQuery(filter, sort, cursor, 4));
+			seen.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertNull(cursor);
+		return seen;
+	}
+}
@@ -0,0 +1,93 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.application.dto.RoomImportError;
+import com.hotelsystem.room_service.application.dto.RoomImportResult;
+import com.hotelsystem.room_service.repository.RoomRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:room-import;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ImportRoomsCommandHandlerTests {
+
+	private static final int ROOMS = 10_000;
+
+	@Autowired
+	private ImportRoomsCommandHandler handler;
+	@Autowired
+	private RoomRepository roomRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void importsLargeJsonArrayInBatches() {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < ROOMS; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"roomNumber\":\"J").append(i)
+					.append("\",\"type\":\"STANDARD\",\"pricePerNight\":").append(80 + i % 40)
+					.append(",\"maxGuests\":2,\"amenities\":[\"WiFi\",\"Minibar\"]}");
+		}
+		json.append("]");
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		RoomImportResult result = handler.handle(command(json.toString(), false));
+
+		assertEquals(ROOMS, result.getReceived());
+		assertEquals(ROOMS, result.getImported());
+		assertTrue(result.getErrors().isEmpty());
+		assertTrue(roomRepository.findByRoomNumber("J" + (ROOMS - 1)).isPresent());
+		// Rooms and join rows go out in JDBC batches, not one statement per row
+		assertTrue(statistics.getPrepareStatementCount() < ROOMS / 10, "statements: " + statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void reportsRowErrorsAndImportsTheRest() {
+		handler.handle(command("roomNumber,type,pricePerNight\nC-1,SUITE,300\n", true));
+
+		String csv = "roomNumber,type,pricePerNight,description,amenities\n"
+				+ "C-1,SUITE,300,,\n"
+				+ "C-2,DELUXE,180,\"Corner room, two windows\",WiFi|Balcony\n"
+				+ "C-3,PENTHOUSE,900,,\n"
+				+ "C-2,DELUXE,180,,\n"
+				+ ",STANDARD,90,,\n"
+				+ "C-4,STANDARD,90,,\n";
+		RoomImportResult result = handler.handle(command(csv, true));
+
+		assertEquals(6, result.getReceived());
+		assertEquals(2, result.getImported());
+		assertEquals(List.of(1, 3, 4, 5), result.getErrors().stream().map(RoomImportError::getRow).sorted().toList());
+		assertEquals("Corner room, two windows", roomRepository.findByRoomNumber("C-2").orElseThrow().getDescription());
+	}
+
+	@Test
+	void keepsGoingPastNonObjectsAndKeepsRowsReadBeforeABrokenStream() {
+		String json = "[{\"roomNumber\":\"N-1\",\"type\":\"STANDARD\",\"pricePerNight\":90}, 42,"
+				+ " {\"roomNumber\":\"N-2\",\"type\":\"STANDARD\",\"pricePerNight\":90},"
+				+ " {\"roomNumber\":\"N-3\",";
+		RoomImportResult result = handler.handle(command(json, false));
+
+		assertEquals(3, result.getReceived());
+		assertEquals(2, result.getImported());
+		assertEquals(List.of(2, 4), result.getErrors().stream().map(RoomImportError::getRow).toList());
+		assertTrue(roomRepository.findByRoomNumber("N-2").isPresent());
+	}
+
+	private static ImportRoomsCommand command(String content, boolean csv) {
+		return new ImportRoomsCommand(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), csv);
+	}
+}
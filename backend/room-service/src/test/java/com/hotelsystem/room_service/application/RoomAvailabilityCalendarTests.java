@@ -0,0 +1,39 @@
+package com.hotelsystem.room_service.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomAvailabilityCalendarTests {
+
+	private final RoomAvailabilityCalendar calendar = new RoomAvailabilityCalendar(null, new RoomCatalogVersion());
+	private final LocalDate day = LocalDate.of(2026, 3, 30);
+
+	@Test
+	void checkOutDayIsFreeForNextArrival() {
+		calendar.reserve(1L, 10L, day, day.plusDays(3));
+
+		assertFalse(calendar.isAvailable(10L, day.plusDays(2), day.plusDays(4)));
+		assertFalse(calendar.isAvailable(10L, day.minusDays(1), day.plusDays(1)));
+		assertTrue(calendar.isAvailable(10L, day.plusDays(3), day.plusDays(5)));
+		assertTrue(calendar.isAvailable(10L, day.minusDays(2), day));
+		assertTrue(calendar.isAvailable(11L, day, day.plusDays(3)));
+	}
+
+	@Test
+	void releaseAndRescheduleOnlyMoveTheirOwnNights() {
+		calendar.reserve(1L, 10L, day, day.plusDays(200));
+		calendar.reserve(2L, 10L, day.plusDays(300), day.plusDays(302));
+
+		calendar.reserve(1L, 12L, day, day.plusDays(200));
+		assertTrue(calendar.isAvailable(10L, day, day.plusDays(300)));
+		assertFalse(calendar.isAvailable(12L, day.plusDays(199), day.plusDays(200)));
+		assertFalse(calendar.isAvailable(10L, day.plusDays(301), day.plusDays(400)));
+
+		calendar.release(2L);
+		assertTrue(calendar.isAvailable(10L, day, day.plusDays(365)));
+	}
+}
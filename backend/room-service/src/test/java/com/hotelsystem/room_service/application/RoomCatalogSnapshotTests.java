@@ -0,0 +1,106 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomChangedEvent;
+import com.hotelsystem.room_service.model.Room;
+import com.hotelsystem.room_service.model.RoomStatus;
+import com.hotelsystem.room_service.model.RoomType;
+import com.hotelsystem.room_service.model.RoomView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomCatalogSnapshotTests {
+
+	private final RoomCatalogSnapshot snapshot = new RoomCatalogSnapshot(null, new RoomCatalogVersion());
+
+	@Test
+	void combinesBitmapAndRangeFilters() {
+		for (long id = 1; id <= 200; id++) {
+			snapshot.on(new RoomChangedEvent(id, room(id, id % 2 == 0 ? RoomType.SUITE : RoomType.STANDARD,
+					id % 3 == 0 ? RoomStatus.MAINTENANCE : RoomStatus.AVAILABLE, new BigDecimal(id + ".50"), (int) (id % 5))));
+		}
+
+		GetAvailableRoomsQuery query = new GetAvailableRoomsQuery();
+		query.setType(RoomType.SUITE);
+		query.setStatus(RoomStatus.AVAILABLE);
+		query.setMinPrice(100.5);
+		query.setMaxPrice(130.0);
+		query.setMaxGuests(4);
+
+		assertArrayEquals(new long[]{104, 124}, snapshot.search(query));
+	}
+
+	@Test
+	void patchesMoveRoomsBetweenBitmapsAndReuseSlots() {
+		snapshot.on(new RoomChangedEvent(1L, room(1, RoomType.SUITE, RoomStatus.AVAILABLE, BigDecimal.TEN, 2)));
+		snapshot.on(new RoomChangedEvent(2L, room(2, RoomType.SUITE, RoomStatus.AVAILABLE, BigDecimal.TEN, 2)));
+
+		GetAvailableRoomsQuery available = new GetAvailableRoomsQuery();
+		available.setStatus(RoomStatus.AVAILABLE);
+
+		snapshot.on(new RoomChangedEvent(1L, room(1, RoomType.SUITE, RoomStatus.OCCUPIED, BigDecimal.TEN, 2)));
+		assertArrayEquals(new long[]{2}, snapshot.search(available));
+
+		snapshot.on(new RoomChangedEvent(2L, null));
+		snapshot.on(new RoomChangedEvent(3L, room(3, RoomType.DELUXE, RoomStatus.AVAILABLE, BigDecimal.ONE, 1)));
+		assertArrayEquals(new long[]{3}, snapshot.search(available));
+		assertArrayEquals(new long[]{1, 3}, snapshot.search(new GetAvailableRoomsQuery()));
+	}
+
+	@Test
+	void facetsCountEachFacetWithoutItsOwnFilter() {
+		RoomType[] types = RoomType.values();
+		for (long id = 1; id <= 300; id++) {
+			snapshot.on(new RoomChangedEvent(id, room(id, types[(int) (id % types.length)], RoomStatus.AVAILABLE,
+					new BigDecimal(id * 3), (int) (id % 8))));
+		}
+		GetAvailableRoomsQuery query = new GetAvailableRoomsQuery();
+		query.setType(RoomType.SUITE);
+		query.setMinPrice(150.0);
+		query.setMaxGuests(3);
+		long[] bandCents = {20_000, 50_000};
+		long[] busy = {6, 7};
+
+		RoomCatalogSnapshot.Facets facets = snapshot.facets(query, 0L, null, busy, bandCents, 6);
+
+		int total = 0;
+		int[] typeCounts = new int[types.length];
+		int[] bands = new int[3];
+		int[] guests = new int[7];
+		for (long id = 1; id <= 300; id++) {
+			if (id == 6 || id == 7) {
+				continue;
+			}
+			RoomType type = types[(int) (id % types.length)];
+			long cents = id * 300;
+			int capacity = (int) (id % 8);
+			boolean typeOk = type == RoomType.SUITE;
+			boolean priceOk = cents >= 15_000;
+			boolean guestsOk = capacity >= 3;
+			total += typeOk && priceOk && guestsOk ? 1 : 0;
+			typeCounts[type.ordinal()] += priceOk && guestsOk ? 1 : 0;
+			bands[cents < 20_000 ? 0 : cents < 50_000 ? 1 : 2] += typeOk && guestsOk ? 1 : 0;
+			guests[Math.min(capacity, 6)] += typeOk && priceOk ? 1 : 0;
+		}
+		assertEquals(total, facets.total());
+		assertArrayEquals(typeCounts, facets.types());
+		assertArrayEquals(bands, facets.priceBands());
+		assertArrayEquals(guests, facets.guests());
+		assertEquals(total, facets.views()[RoomView.CITY_VIEW.ordinal()]);
+	}
+
+	private static Room room(long id, RoomType type, RoomStatus status, BigDecimal price, int guests) {
+		Room room = new Room();
+		room.setId(id);
+		room.setType(type);
+		room.setStatus(status);
+		room.setViewType(RoomView.CITY_VIEW);
+		room.setPricePerNight(price);
+		room.setMaxGuests(guests);
+		room.setBedCount(1);
+		return room;
+	}
+}
@@ -0,0 +1,138 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.event.RoomCleanedEvent;
+import com.hotelsystem.room_service.event.RoomStatusChangedEvent;
+import com.hotelsystem.room_service.model.RoomStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomEventStreamTests {
+
+	private final ManualExecutor sender = new ManualExecutor();
+	private final RoomEventStream stream = new RoomEventStream(4, 2, 0, sender);
+
+	@Test
+	void slowSubscriberGetsLatestEventPerRoom() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		stream.subscribe(emitter, null);
+
+		stream.on(status(1L, RoomStatus.AVAILABLE, RoomStatus.MAINTENANCE));
+		stream.on(status(1L, RoomStatus.MAINTENANCE, RoomStatus.OCCUPIED));
+		stream.on(new RoomCleanedEvent(2L, "hk-7", LocalDateTime.now()));
+		sender.runAll();
+
+		assertEquals(2, emitter.events.size());
+		assertTrue(emitter.events.get(0).contains("event:room-status-changed"));
+		assertTrue(emitter.events.get(0).contains("oldStatus=AVAILABLE, newStatus=OCCUPIED"));
+		assertTrue(emitter.events.get(1).contains("event:room-cleaned"));
+	}
+
+	@Test
+	void overflowingSubscriberIsToldToResync() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		stream.subscribe(emitter, null);
+
+		for (long roomId = 1; roomId <= 3; roomId++) {
+			stream.on(status(roomId, RoomStatus.AVAILABLE, RoomStatus.MAINTENANCE));
+		}
+		sender.runAll();
+
+		assertEquals(1, emitter.events.size());
+		assertTrue(emitter.events.get(0).contains("event:resync"));
+		// The resync carries the newest ID so the reconnect after the reload starts from there
+		assertTrue(emitter.events.get(0).contains("-3\n"));
+	}
+
+	@Test
+	void reconnectResumesAfterLastEventIdOrResyncs() {
+		RecordingEmitter first = new RecordingEmitter();
+		stream.subscribe(first, null);
+		stream.on(status(1L, RoomStatus.AVAILABLE, RoomStatus.OCCUPIED));
+		sender.runAll();
+		String lastEventId = first.events.get(0).lines().filter(line -> line.startsWith("id:")).findFirst()
+				.orElseThrow().substring(3);
+
+		stream.on(status(2L, RoomStatus.AVAILABLE, RoomStatus.OCCUPIED));
+		stream.on(status(3L, RoomStatus.AVAILABLE, RoomStatus.OCCUPIED));
+
+		RecordingEmitter resumed = new RecordingEmitter();
+		stream.subscribe(resumed, lastEventId);
+		RecordingEmitter stale = new RecordingEmitter();
+		stream.subscribe(stale, "42-7");
+		sender.runAll();
+
+		assertEquals(2, resumed.events.size());
+		assertTrue(resumed.events.get(0).contains("roomId=2"));
+		assertTrue(resumed.events.get(1).contains("roomId=3"));
+		assertEquals(1, stale.events.size());
+		assertTrue(stale.events.get(0).contains("event:resync"));
+	}
+
+	private static RoomStatusChangedEvent status(Long roomId, RoomStatus from, RoomStatus to) {
+		return new RoomStatusChangedEvent(roomId, from, to, LocalDateTime.now());
+	}
+
+	// Records each event as its SSE text instead of writing to a response
+	private static final class RecordingEmitter extends SseEmitter {
+		private final List<String> events = new ArrayList<>();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			StringBuilder text = new StringBuilder();
+			builder.build().forEach(part -> text.append(part.getData()));
+			events.add(text.toString());
+		}
+	}
+
+	// Runs sends only when asked, so events pile up the way they do behind a slow client
+	private static final class ManualExecutor extends AbstractExecutorService {
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+		void runAll() {
+			Runnable task;
+			while ((task = tasks.poll()) != null) {
+				task.run();
+			}
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return List.of();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return false;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.hotelsystem.room_service.application;
+
+import com.hotelsystem.room_service.model.RoomRate;
+import com.hotelsystem.room_service.model.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomRateCalendarTests {
+
+	private static final int WEEKEND = 1 << (DayOfWeek.SATURDAY.getValue() - 1) | 1 << (DayOfWeek.SUNDAY.getValue() - 1);
+
+	private final RoomRateCalendar calendar = new RoomRateCalendar(null, 730);
+	private final LocalDate today = LocalDate.now();
+	private final List<RoomRate> rules = List.of(
+			rate(1, RoomType.SUITE, today.plusDays(10), today.plusDays(100), null, "250.00"),
+			rate(2, RoomType.SUITE, today.minusYears(1), today.plusYears(5), WEEKEND, "400.00"),
+			rate(3, RoomType.STANDARD, today.plusYears(4), today.plusYears(4).plusDays(30), null, "90.00"));
+
+	@Test
+	void prefixSumQuotesMatchNightByNightPricing() {
+		calendar.load(rules);
+		Random random = new Random(7);
+		for (int i = 0; i < 2_000; i++) {
+			RoomType type = random.nextBoolean() ? RoomType.SUITE : RoomType.STANDARD;
+			// Ranges start before the window and end well past it, so both paths are exercised
+			LocalDate checkIn = today.plusDays(random.nextInt(1_600) - 100);
+			LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(60));
+			assertEquals(expected(type, 20_000, checkIn, checkOut), calendar.quote(type, 20_000, checkIn, checkOut),
+					type + " " + checkIn + ".." + checkOut);
+		}
+	}
+
+	@Test
+	void uncoveredNightsUseTheRoomsOwnPrice() {
+		calendar.load(List.of());
+		assertEquals(3 * 12_550, calendar.quote(RoomType.DELUXE, 12_550, today, today.plusDays(3)));
+	}
+
+	// Newest matching rule wins, otherwise the base price
+	private long expected(RoomType type, long baseCents, LocalDate checkIn, LocalDate checkOut) {
+		long total = 0;
+		for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+			long cents = baseCents;
+			for (RoomRate rule : rules) {
+				boolean weekday = rule.getDaysOfWeek() == null
+						|| (rule.getDaysOfWeek() & 1 << (night.getDayOfWeek().getValue() - 1)) != 0;
+				if (rule.getRoomType() == type && !night.isBefore(rule.getStartDate())
+						&& night.isBefore(rule.getEndDate()) && weekday) {
+					cents = rule.getPricePerNight().movePointRight(2).longValueExact();
+				}
+			}
+			total += cents;
+		}
+		return total;
+	}
+
+	private static RoomRate rate(long id, RoomType type, LocalDate start, LocalDate end, Integer days, String price) {
+		return new RoomRate(id, type, start, end, days, new BigDecimal(price));
+	}
+}
@@ -0,0 +1,61 @@
+package com.hotelsystem.room_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:room-etags;DB_CLOSE_DELAY=-1")
+class RoomControllerETagTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void roomReadsRevalidateAgainstRowVersion() throws Exception {
+		String id = mockMvc.perform(post("/api/rooms").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"roomNumber\":\"E-1\",\"type\":\"SUITE\",\"pricePerNight\":250}"))
+				.andReturn().getResponse().getContentAsString();
+
+		String etag = mockMvc.perform(get("/api/rooms/" + id))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-cache"))
+				.andReturn().getResponse().getHeader("ETag");
+		mockMvc.perform(get("/api/rooms/" + id).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		mockMvc.perform(put("/api/rooms/" + id).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"pricePerNight\":275}"));
+		String updated = mockMvc.perform(get("/api/rooms/" + id).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.pricePerNight").value(275))
+				.andReturn().getResponse().getHeader("ETag");
+		assertNotEquals(etag, updated);
+	}
+
+	@Test
+	void roomListRevalidatesAgainstCatalogVersion() throws Exception {
+		String etag = mockMvc.perform(get("/api/rooms").param("type", "SUITE"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		mockMvc.perform(get("/api/rooms").param("type", "SUITE").header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+
+		// A new stay changes date-filtered results, so it invalidates list tags too
+		mockMvc.perform(post("/api/rooms/occupancy").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"bookingId\":900,\"roomId\":1,\"checkInDate\":\"2030-01-01\",\"checkOutDate\":\"2030-01-03\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/rooms").param("type", "SUITE").header("If-None-Match", etag))
+				.andExpect(status().isOk());
+	}
+}
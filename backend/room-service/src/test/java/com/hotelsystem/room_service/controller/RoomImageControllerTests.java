@@ -0,0 +1,60 @@
+package com.hotelsystem.room_service.controller;
+
+import com.hotelsystem.room_service.application.RoomImageStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:room-images;DB_CLOSE_DELAY=-1",
+		"room.images.dir=${java.io.tmpdir}/room-images-test"
+})
+class RoomImageControllerTests {
+
+	private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3, 4, 5, 6, 7, 8};
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private RoomImageStore imageStore;
+
+	@Test
+	void servesStoredImageWithCachingAndRanges() throws Exception {
+		String body = mockMvc.perform(multipart("/api/rooms/images").file(new MockMultipartFile("file", PNG)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String inline = imageStore.toReference("data:image/png;base64," + Base64.getEncoder().encodeToString(PNG));
+		// Same bytes, same address
+		assertEquals(true, body.contains("\"url\":\"" + inline + "\""));
+		String etag = "\"" + inline.substring(RoomImageStore.URL_PREFIX.length()) + "\"";
+
+		mockMvc.perform(get(inline))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", etag))
+				.andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+				.andExpect(content().contentType("image/png"))
+				.andExpect(content().bytes(PNG));
+
+		mockMvc.perform(get(inline).header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(get(inline).header("Range", "bytes=8-11"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string("Content-Range", "bytes 8-11/16"))
+				.andExpect(content().bytes(new byte[]{1, 2, 3, 4}));
+
+		mockMvc.perform(get(inline).header("Range", "bytes=99-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable());
+	}
+}
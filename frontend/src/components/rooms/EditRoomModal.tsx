@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { X, BedDouble, DollarSign, List, Loader2 } from 'lucide-react';
-import { roomService } from '../../services/roomService';
+import { roomService, resolveImageUrl } from '../../services/roomService';
 import type { Room } from '../../types';
 
 interface EditRoomModalProps {
@@ -166,7 +166,7 @@ const EditRoomModal = ({ isOpen, onClose, onRoomUpdated, room }: EditRoomModalPr
                                 onChange={handleImageChange}
                             />
                             {formData.imageUrl && (
-                                <img src={formData.imageUrl} alt="Preview" className="mt-2 h-32 w-full object-cover rounded-lg border border-gray-200" />
+                                <img src={resolveImageUrl(formData.imageUrl)} alt="Preview" className="mt-2 h-32 w-full object-cover rounded-lg border border-gray-200" />
                             )}
                         </div>
                     </div>
@@ -76,7 +76,7 @@ const BillingPage = () => {
                         {invoices.map((inv) => (
                             <tr key={inv.id} className="hover:bg-gray-50 transition-colors group">
                                 <td className="py-4 px-6 font-mono text-xs text-gray-500 font-bold">{inv.id}</td>
-                                <td className="py-4 px-6 font-medium text-[#1a202c]">Booking #{inv.booking?.id || '-'}</td>
+                                <td className="py-4 px-6 font-medium text-[#1a202c]">Booking #{inv.bookingId || '-'}</td>
                                 <td className="py-4 px-6 text-sm text-gray-600">{inv.issueDate}</td>
                                 <td className="py-4 px-6 font-serif font-bold text-[#1a202c]">${inv.amount}</td>
                                 <td className="py-4 px-6">
@@ -3,7 +3,7 @@ import { LayoutGrid, List, Plus, SlidersHorizontal, ArrowUpDown, ChevronLeft, Ch
 import RoomFilters from '../components/rooms/RoomFilters';
 import CreateRoomModal from '../components/rooms/CreateRoomModal';
 import ManageRoomModal from '../components/rooms/ManageRoomModal';
-import { roomService } from '../services/roomService';
+import { roomService, resolveImageUrl } from '../services/roomService';
 import type { Room } from '../types';
 
 const RoomListPage = () => {
@@ -91,7 +91,7 @@ const RoomListPage = () => {
 
     // Helper to get image based on room type
     const getRoomImage = (room: Room) => {
-        if (room.imageUrl) return room.imageUrl;
+        if (room.imageUrl) return resolveImageUrl(room.imageUrl);
 
         switch (room.type) {
             case 'PRESIDENTIAL_SUITE': return 'https://images.unsplash.com/photo-1618773928121-c32242e63f39?auto=format&fit=crop&q=80&w=800';
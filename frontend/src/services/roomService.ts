@@ -14,6 +14,10 @@ export interface CreateRoomDTO {
     bedCount: number;
 }
 
+// Stored room images come back as gateway-relative references (/api/rooms/images/<hash>)
+export const resolveImageUrl = (url?: string): string | undefined =>
+    url && url.startsWith('/api/') ? `${(api.defaults.baseURL ?? '').replace(/\/api$/, '')}${url}` : url;
+
 export const roomService = {
     getAvailableRooms: async (
         checkInDate?: string,